@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.item.Item;
+import ru.practicum.shareit.user.UserRepository;
+import org.springframework.boot.WebApplicationType;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка вещей и бронирований пачками по ROWS строк в одной транзакции. Результат - вставок в секунду.
+ * batchSize=1 - по запросу на строку, как было с IDENTITY, batchSize=50 - пакетная вставка JDBC при ИД
+ * из последовательностей. По умолчанию база - встроенная H2 в памяти, где обращение к базе ничего не стоит
+ * и пакеты почти не влияют на результат; выигрыш от пакетов виден на базе по сети:
+ * -Djmh.args="InsertBenchmark -p url=jdbc:postgresql://host:5432/shareit?reWriteBatchedInserts=true
+ * -p username=... -p password=..."
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(InsertBenchmark.ROWS)
+public class InsertBenchmark {
+    static final int ROWS = 500;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"jdbc:h2:mem:jmh-insert;DB_CLOSE_DELAY=-1"})
+    private String url;
+
+    @Param({"test"})
+    private String username;
+
+    @Param({"test"})
+    private String password;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--shareit.items.search.index.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        // на PostgreSQL данные прошлых запусков остаются, адреса почты должны быть новыми
+        String run = UUID.randomUUID().toString();
+        owner = userRepository.save(User.builder().name("owner").email("owner-" + run + "@mail.com").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker-" + run + "@mail.com").build());
+        item = itemRepository.save(makeItem(0));
+        start = LocalDateTime.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> insertItems() {
+        List<Item> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(makeItem(i));
+        }
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+
+    @Benchmark
+    public List<Booking> insertBookings() {
+        List<Booking> bookings = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            start = start.plusHours(2);
+            bookings.add(Booking.builder()
+                    .start(start)
+                    .end(start.plusHours(1))
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .build());
+        }
+        return transactionTemplate.execute(status -> bookingRepository.saveAll(bookings));
+    }
+
+    private Item makeItem(int i) {
+        return Item.builder()
+                .owner(owner.getId())
+                .name("Дрель " + i)
+                .description("Простая дрель " + i)
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списков ItemDto и BookingDto в JSON тем же ObjectMapper, что строит Spring для контроллеров.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<ItemDto> items;
+    private List<BookingDto> bookings;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            items.add(new ItemDto(i, "Дрель " + i, "Простая дрель " + i, true, null,
+                    new ItemDto.ItemBooking(i, 2L),
+                    new ItemDto.ItemBooking(i + 1, 3L),
+                    List.of(new CommentDto(i, "Отличная дрель", "booker", now))));
+            bookings.add(new BookingDto(i, now.plusDays(i), now.plusDays(i + 1), i,
+                    new BookingDto.Item(i, "Дрель " + i), new BookingDto.User(2L), Status.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+}
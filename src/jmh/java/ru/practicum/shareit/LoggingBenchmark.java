@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.helpers.MessageFormatter;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.booking.model.Status;
+import org.springframework.boot.logging.LogLevel;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.logging.LoggingSystem;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import ru.practicum.shareit.common.logging.LogPayload;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость журналирования списков вещей и бронирований владельца.
+ * getItems и findBookingsByOwnerIdAndState - вызовы сервисов при уровне журнала сервисов level
+ * (WARN - без сообщений сервисов, INFO - с сообщениями, асинхронная запись и ограничение частоты).
+ * render* - построение строки сообщения для того же результата: full - весь список, как писалось раньше,
+ * ids - количество и ИД через LogPayload.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoggingBenchmark {
+    private static final int ITEMS = 100;
+    private static final int SIZE = 100;
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
+    @Param({"WARN", "INFO"})
+    private String level;
+
+    private ConfigurableApplicationContext context;
+    private ItemServiceImpl itemService;
+    private BookingServiceImpl bookingService;
+    private Collection<ItemDto> items;
+    private Collection<BookingDto> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh-logging;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemServiceImpl.class);
+        bookingService = context.getBean(BookingServiceImpl.class);
+        addData(context.getBean(UserServiceImpl.class));
+
+        items = itemService.getItems(OWNER_ID, 0, SIZE);
+        bookings = bookingService.findBookingsByOwnerIdAndState(OWNER_ID, "ALL", 0, SIZE);
+        context.getBean(LoggingSystem.class).setLogLevel("ru.practicum.shareit", LogLevel.valueOf(level));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<ItemDto> getItems() {
+        return itemService.getItems(OWNER_ID, 0, SIZE);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> findBookingsByOwnerIdAndState() {
+        return bookingService.findBookingsByOwnerIdAndState(OWNER_ID, "ALL", 0, SIZE);
+    }
+
+    @Benchmark
+    public String renderItemsFull() {
+        return MessageFormatter.format("ItemService - для пользователя с ИД: {} предоставлен список вещей: {} ",
+                OWNER_ID, items).getMessage();
+    }
+
+    @Benchmark
+    public String renderItemsIds() {
+        return MessageFormatter.format("ItemService - для пользователя с ИД: {} предоставлен список вещей: {} ",
+                OWNER_ID, LogPayload.ids(items, ItemDto::getId)).getMessage();
+    }
+
+    @Benchmark
+    public String renderBookingsFull() {
+        return MessageFormatter.format("BookingService - предоставлен список броней: {} ", bookings).getMessage();
+    }
+
+    @Benchmark
+    public String renderBookingsIds() {
+        return MessageFormatter.format("BookingService - предоставлен список броней: {} ",
+                LogPayload.ids(bookings, BookingDto::getId)).getMessage();
+    }
+
+    private void addData(UserServiceImpl userService) {
+        userService.addUser(new UserDto(null, "owner", "owner@mail.com"));
+        userService.addUser(new UserDto(null, "booker", "booker@mail.com"));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.addItem(OWNER_ID,
+                    ItemDto.builder().name("Дрель " + i).description("Простая дрель " + i).available(true).build());
+            BookingDto booking = addBooking(item.getId(), now.minusDays(3), now.minusDays(2));
+            bookingService.setApprove(booking.getId(), OWNER_ID, true);
+            addBooking(item.getId(), now.plusDays(2), now.plusDays(3));
+            itemService.addComment(BOOKER_ID, item.getId(), CommentDto.builder().text("Отличная дрель").build());
+        }
+    }
+
+    private BookingDto addBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(BOOKER_ID,
+                BookingDto.builder().itemId(itemId).start(start).end(end).status(Status.WAITING).build());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.item.Item;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.item.model.item.ItemMapper;
+import ru.practicum.shareit.item.model.comment.Comment;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import ru.practicum.shareit.request.model.ItemRequestDto;
+import ru.practicum.shareit.item.model.comment.CommentMapper;
+import ru.practicum.shareit.request.model.ItemRequestMapper;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование списков сущностей в DTO мапперами, размер списка соответствует размеру страницы.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<Comment> comments;
+    private List<ItemRequest> requests;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.com").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.com").build();
+        ItemRequest request = new ItemRequest(1L, "Нужна дрель", booker, now);
+
+        items = new ArrayList<>(size);
+        bookings = new ArrayList<>(size);
+        comments = new ArrayList<>(size);
+        requests = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            Item item = new Item(i, owner.getId(), "Дрель " + i, "Простая дрель " + i, true, request, 0L);
+            items.add(item);
+            bookings.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1), item, booker, Status.APPROVED, 0L));
+            comments.add(new Comment(i, "Отличная дрель " + i, item, booker, now));
+            requests.add(new ItemRequest(i, "Нужна дрель " + i, booker, now));
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> mapToItemDto() {
+        return ItemMapper.mapToItemDto(items);
+    }
+
+    @Benchmark
+    public List<BookingDto> mapToBookingDto() {
+        return BookingMapper.mapToBookingDto(bookings);
+    }
+
+    @Benchmark
+    public List<CommentDto> mapToCommentDto() {
+        return CommentMapper.mapToItemDto(comments);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> mapToItemRequestDto() {
+        return ItemRequestMapper.mapToItemRequestDto(requests);
+    }
+}
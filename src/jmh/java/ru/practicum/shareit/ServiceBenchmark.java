@@ -0,0 +1,104 @@
+package ru.practicum.shareit;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import org.springframework.boot.WebApplicationType;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.Collection;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Списки вещей и бронирований владельца через сервисы на встроенной H2 в памяти.
+ * У владельца ITEMS вещей, по каждой - завершённое, текущее, будущее и ожидающее подтверждения бронирование
+ * и комментарий.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+    private static final int ITEMS = 200;
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private ItemServiceImpl itemService;
+    private BookingServiceImpl bookingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        itemService = context.getBean(ItemServiceImpl.class);
+        bookingService = context.getBean(BookingServiceImpl.class);
+        addData(context.getBean(UserServiceImpl.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Collection<ItemDto> getItems() {
+        return itemService.getItems(OWNER_ID, 0, size);
+    }
+
+    @Benchmark
+    public Collection<BookingDto> findBookingsByOwnerIdAndState(BookingState bookingState) {
+        return bookingService.findBookingsByOwnerIdAndState(OWNER_ID, bookingState.state, 0, size);
+    }
+
+    // параметр state нужен только спискам бронирований
+    @State(Scope.Benchmark)
+    public static class BookingState {
+        @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING"})
+        private String state;
+    }
+
+    private void addData(UserServiceImpl userService) {
+        userService.addUser(new UserDto(null, "owner", "owner@mail.com"));
+        userService.addUser(new UserDto(null, "booker", "booker@mail.com"));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = itemService.addItem(OWNER_ID,
+                    ItemDto.builder().name("Дрель " + i).description("Простая дрель " + i).available(true).build());
+            addApprovedBooking(item.getId(), now.minusDays(3), now.minusDays(2));
+            addApprovedBooking(item.getId(), now.minusDays(1), now.plusDays(1));
+            addApprovedBooking(item.getId(), now.plusDays(2), now.plusDays(3));
+            addBooking(item.getId(), now.plusDays(4), now.plusDays(5));
+            itemService.addComment(BOOKER_ID, item.getId(), CommentDto.builder().text("Отличная дрель").build());
+        }
+    }
+
+    private void addApprovedBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingDto booking = addBooking(itemId, start, end);
+        bookingService.setApprove(booking.getId(), OWNER_ID, true);
+    }
+
+    private BookingDto addBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingService.addBooking(BOOKER_ID,
+                BookingDto.builder().itemId(itemId).start(start).end(end).status(Status.WAITING).build());
+    }
+}
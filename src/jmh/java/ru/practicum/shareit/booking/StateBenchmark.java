@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор параметра state списков бронирований, первое и последнее значение перечисления.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class StateBenchmark {
+    @Param({"ALL", "REJECTED"})
+    private String state;
+
+    @Benchmark
+    public State getStateOrValidatorExceptions() {
+        return State.getStateOrValidatorExceptions(state);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.model.Status;
+import org.springframework.format.annotation.DateTimeFormat;
+import ru.practicum.shareit.exception.ValidatorExceptions;
+import ru.practicum.shareit.booking.model.BookingExportFilter;
+import ru.practicum.shareit.booking.service.BookingExportService;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/admin/bookings")
+public class BookingAdminController {
+    private final BookingExportService bookingExportService;
+
+    // выгрузка всех бронирований в NDJSON, с необязательными условиями по владельцу, вещи, статусу и дате начала
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(required = false) Long ownerId,
+            @RequestParam(required = false) Long itemId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        bookingExportService.checkAdmin(userId);
+        BookingExportFilter filter = new BookingExportFilter(ownerId, itemId, toStatus(status), from, to);
+        log.info("BookingAdminController - выгрузка броней пользователем с ИД: {}, фильтр: {}", userId, filter);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> bookingExportService.exportBookings(filter, out));
+    }
+
+    private static Status toStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        for (Status value : Status.values()) {
+            if (value.name().equals(status)) {
+                return value;
+            }
+        }
+        throw new ValidatorExceptions("Unknown status: " + status);
+    }
+}
@@ -4,11 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingPage;
+import ru.practicum.shareit.booking.model.BookingApprovalResult;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.annotation.Validated;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.util.List;
 import java.util.Collection;
 import javax.validation.Valid;
+import javax.validation.constraints.Size;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 
@@ -18,6 +26,9 @@ import javax.validation.constraints.PositiveOrZero;
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_BULK_APPROVE = 500;
+
     private final BookingService bookingService;
 
     // создать бронирование
@@ -40,36 +51,74 @@ public class BookingController {
         return bookingService.setApprove(bookingId, userId, approved);
     }
 
+    // подтверждение или отклонение списка броней владельцем вещей, результат по каждой брони
+    @PatchMapping("/owner/approve")
+    public List<BookingApprovalResult> setApproveAll(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam Boolean approved,
+            @RequestBody @NotEmpty @Size(max = MAX_BULK_APPROVE) List<@NotNull Long> bookingIds) {
+        log.info("BookingController - изменение статуса броней: {}, пользователем с ИД: {}, статус - {}",
+                bookingIds.size(), ownerId, approved);
+
+        return bookingService.setApproveAll(ownerId, bookingIds, approved);
+    }
+
     // получение данных о конкретном бронировании для автора бронирования, либо владельца вещи
+    // ETag по версиям брони и вещи, при совпадении с If-None-Match - 304 без загрузки и преобразования брони
     @GetMapping("/{bookingId}")
     public BookingDto findByBookingIdAndUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @PathVariable Long bookingId) {
+                                               @PathVariable Long bookingId,
+                                               WebRequest request) {
         log.info("ItemController - получение брони с ИД: {}, от пользователя с ИД: {}", bookingId, userId);
+        if (request.checkNotModified(bookingService.getBookingETag(bookingId, userId))) {
+            return null;
+        }
 
         return bookingService.findByBookingIdAndUserId(bookingId, userId);
     }
 
     // получение списка бронирований для пользователя, по статусу
+    // при переданном cursor (пустой - первая страница) вывод по курсору, курсор следующей страницы в X-Next-Cursor
     @GetMapping
-    public Collection<BookingDto> findBookingsByUserIdAndState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                               @RequestParam(defaultValue = "0")  @PositiveOrZero() int from,
-                                                               @RequestParam(defaultValue = "10") @Positive() int size,
-                                                               @RequestParam(required = false, defaultValue = "ALL")
-                                                               String state) {
-        log.info("Получен запрос на поиск брони по владельцу с ИД: " + userId + " и статусом: " + state);
-
-        return bookingService.findBookingsByUserIdAndState(userId, state, from, size);
+    public ResponseEntity<Collection<BookingDto>> findBookingsByUserIdAndState(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "0")  @PositiveOrZero() int from,
+            @RequestParam(defaultValue = "10") @Positive() int size,
+            @RequestParam(required = false, defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос на поиск брони по владельцу с ИД: {} и статусом: {}", userId, state);
+
+        if (cursor != null) {
+            return toResponse(bookingService.findBookingsByUserIdAndState(userId, state, cursor, size));
+        }
+
+        return ResponseEntity.ok(bookingService.findBookingsByUserIdAndState(userId, state, from, size));
     }
 
     // получение списка бронирований владельца вещи, по статусу
+    // при переданном cursor (пустой - первая страница) вывод по курсору, курсор следующей страницы в X-Next-Cursor
     @GetMapping("/owner")
-    public Collection<BookingDto> findBookingsByOwnerIdAndState(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                                @RequestParam(defaultValue = "0")  @PositiveOrZero() int from,
-                                                                @RequestParam(defaultValue = "10") @Positive() int size,
-                                                                @RequestParam(required = false, defaultValue = "ALL")
-                                                                String state) {
+    public ResponseEntity<Collection<BookingDto>> findBookingsByOwnerIdAndState(
+            @RequestHeader("X-Sharer-User-Id") Long ownerId,
+            @RequestParam(defaultValue = "0")  @PositiveOrZero() int from,
+            @RequestParam(defaultValue = "10") @Positive() int size,
+            @RequestParam(required = false, defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor) {
         log.info("ItemController - поиск всех броней для пользователя с ИД: {} и статусом - {}", ownerId, state);
 
-        return bookingService.findBookingsByOwnerIdAndState(ownerId, state, from, size);
+        if (cursor != null) {
+            return toResponse(bookingService.findBookingsByOwnerIdAndState(ownerId, state, cursor, size));
+        }
+
+        return ResponseEntity.ok(bookingService.findBookingsByOwnerIdAndState(ownerId, state, from, size));
+    }
+
+    private ResponseEntity<Collection<BookingDto>> toResponse(BookingPage bookingPage) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookingPage.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, bookingPage.getNextCursor());
+        }
+
+        return response.body(bookingPage.getBookings());
     }
 }
\ No newline at end of file
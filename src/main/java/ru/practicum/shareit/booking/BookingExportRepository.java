@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingExportFilter;
+
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка бронирований потоком, запрос собирается только из заданных условий фильтра,
+ * чтобы для каждого набора условий использовался подходящий индекс.
+ */
+public interface BookingExportRepository {
+    int EXPORT_FETCH_SIZE = 500;
+
+    // брони вместе с вещами и арендаторами по возрастанию ИД, поток нужно читать в транзакции и закрыть
+    Stream<Booking> streamForExport(BookingExportFilter filter);
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.jpa.QueryHints;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingExportFilter;
+
+import javax.persistence.TypedQuery;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.stream.Stream;
+
+public class BookingExportRepositoryImpl implements BookingExportRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Booking> streamForExport(BookingExportFilter filter) {
+        StringBuilder jpql = new StringBuilder("" +
+                "SELECT b FROM Booking b " +
+                "JOIN FETCH b.item i " +
+                "JOIN FETCH b.booker " +
+                "WHERE 1 = 1");
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        addCondition(jpql, parameters, "i.owner = :ownerId", "ownerId", filter.getOwnerId());
+        addCondition(jpql, parameters, "i.id = :itemId", "itemId", filter.getItemId());
+        addCondition(jpql, parameters, "b.status = :status", "status", filter.getStatus());
+        addCondition(jpql, parameters, "b.start >= :from", "from", filter.getFrom());
+        addCondition(jpql, parameters, "b.start < :to", "to", filter.getTo());
+        jpql.append(" ORDER BY b.id");
+
+        TypedQuery<Booking> query = entityManager.createQuery(jpql.toString(), Booking.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, EXPORT_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_CACHEABLE, false);
+        parameters.forEach(query::setParameter);
+
+        return query.getResultStream();
+    }
+
+    private static void addCondition(
+            StringBuilder jpql, Map<String, Object> parameters, String condition, String name, Object value) {
+        if (value != null) {
+            jpql.append(" AND ").append(condition);
+            parameters.put(name, value);
+        }
+    }
+}
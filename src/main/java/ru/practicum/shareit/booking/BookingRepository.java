@@ -2,74 +2,278 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDto;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.BookingVersion;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.Collection;
 import java.time.LocalDateTime;
-import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+/**
+ * Условия по связанным сущностям записаны явными JPQL запросами (b.booker.id, b.item.owner):
+ * в производных запросах Spring Data они превращаются в LEFT JOIN и индексы bookings не используются.
+ */
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingExportRepository {
+    /**
+     * Условие и порядок для вывода по курсору: брони строго после позиции (?2 - дата начала, ?3 - ИД)
+     */
+    String SEEK_AFTER_CURSOR = "AND (b.start < ?2 OR (b.start = ?2 AND b.id < ?3)) ";
+    String SEEK_ORDER = "ORDER BY b.start DESC, b.id DESC";
+
+    /**
+     * Проекция для списков бронирований: только столбцы BookingDto, без загрузки брони, вещи, арендатора
+     * и запроса вещи в контекст персистентности
+     */
+    String SELECT_BOOKING_DTO = "" +
+            "SELECT new ru.practicum.shareit.booking.model.BookingDto(" +
+            "b.id, b.start, b.end, i.id, i.name, b.booker.id, b.status) " +
+            "FROM Booking b JOIN b.item i ";
+
+    /**
+     * Бронь вместе с вещью: для проверки владельца и названия вещи в ответе, арендатор нужен только по ИД
+     */
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Long bookingId);
+
+    /**
+     * Для массового подтверждения, брони вместе с вещами - владелец проверяется сразу для всего списка
+     */
+    @Query(value = "" +
+            "SELECT b FROM Booking b " +
+            "JOIN FETCH b.item " +
+            "JOIN FETCH b.booker " +
+            "WHERE b.id IN ?1")
+    List<Booking> findAllWithItemByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Для массового подтверждения, ИД вещей броней - чтобы заблокировать вещи до чтения самих броней
+     */
+    @Query(value = "" +
+            "SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.id IN ?1")
+    List<Long> findItemIdsByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Массовое изменение статуса одним UPDATE, меняются только брони, статус которых всё ещё ?2 - прочитанный
+     * перед изменением, версия увеличивается, чтобы параллельные изменения отдельных броней получили конфликт версий
+     */
+    @Modifying(clearAutomatically = true)
+    @Query(value = "" +
+            "UPDATE Booking b SET b.status = ?3, b.version = b.version + 1 " +
+            "WHERE b.id IN ?1 AND b.status = ?2")
+    int updateStatusIfUnchanged(Collection<Long> bookingIds, Status readStatus, Status newStatus);
+
+    /**
+     * Для проверки пересечения бронирований, есть ли у вещи бронь в статусах ?4 на период [?2, ?3), кроме брони ?5
+     */
+    @Query(value = "" +
+            "SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.start < ?3 AND b.end > ?2 AND b.status IN ?4 AND b.id <> ?5")
+    boolean existsOverlappingBooking(
+            Long itemId, LocalDateTime start, LocalDateTime end, Collection<Status> statuses, Long excludedId);
+
+    /**
+     * Для ETag брони, версии брони и вещи и участники брони одним запросом без загрузки сущностей
+     */
+    @Query(value = "" +
+            "SELECT new ru.practicum.shareit.booking.model.BookingVersion(b.id, b.booker.id, i.owner, b.version, i.version) " +
+            "FROM Booking b JOIN b.item i " +
+            "WHERE b.id = ?1")
+    Optional<BookingVersion> findVersionById(Long bookingId);
+
+    /**
+     * Для индекса пересечений, периоды броней в статусах ?1, заканчивающихся после ?2, порциями по ИД после ?3
+     */
+    @Query(value = "" +
+            "SELECT new ru.practicum.shareit.booking.model.BookingInterval(b.id, b.item.id, b.start, b.end) " +
+            "FROM Booking b " +
+            "WHERE b.status IN ?1 AND b.end > ?2 AND b.id > ?3 " +
+            "ORDER BY b.id")
+    List<BookingInterval> findIntervals(
+            Collection<Status> statuses, LocalDateTime now, Long lastId, PageRequest pageRequest);
+
     /**
-     * Для сервиса комментариев
+     * Для сервиса комментариев, есть ли у пользователя завершённая до ?4 аренда вещи в статусе ?3
      */
-    Collection<Booking> findByBooker_Id(Long userId);
+    @Query(value = "" +
+            "SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND b.item.id = ?2 AND b.status = ?3 AND b.end < ?4")
+    boolean existsFinishedBooking(Long userId, Long itemId, Status status, LocalDateTime now);
 
     /**
-     * Для сервиса вещей
+     * Для сервиса вещей, ближайшие и последние аренды сразу для списка вещей
      */
-    Optional<Booking> findTop1BookingByItem_IdAndEndIsAfterAndStatusIsOrderByEndAsc(
-            Long itemId, LocalDateTime end, Status status);
+    @Query(value = "" +
+            "SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.id IN ?1 AND b.status = ?3 AND b.end > ?2 " +
+            "AND b.end = (SELECT MIN(n.end) FROM Booking n " +
+            "WHERE n.item.id = i.id AND n.status = ?3 AND n.end > ?2)")
+    List<Booking> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, Status status);
 
-    Optional<Booking> findTop1BookingByItem_IdAndEndIsBeforeAndStatusIsOrderByEndDesc(
-            Long itemId, LocalDateTime end, Status status);
+    @Query(value = "" +
+            "SELECT b FROM Booking b " +
+            "JOIN FETCH b.item i " +
+            "JOIN FETCH b.booker " +
+            "WHERE i.id IN ?1 AND b.status = ?3 AND b.end < ?2 " +
+            "AND b.end = (SELECT MAX(l.end) FROM Booking l " +
+            "WHERE l.item.id = i.id AND l.status = ?3 AND l.end < ?2)")
+    List<Booking> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, Status status);
 
     /**
      * Для сервиса аренды, поиск по арендатору вещи
      */
-    Collection<Booking> findAllByBooker_IdOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByBooker_IdOrderByStartDesc
             (Long userId, PageRequest pageRequest);
 
     @Query(value = "" +
-            "SELECT * FROM bookings AS b " +
-            "JOIN items i on i.id = b.item_id " +
-            "WHERE b.booker_id= ?1 " +
-            "AND (?2 between start_date and end_date)"
-            , nativeQuery = true)
-    Collection<Booking> findAllByBooker_IdAndStatusCurrentOrderByStartDesc
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 AND ?2 BETWEEN b.start AND b.end " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByBooker_IdAndStatusCurrentOrderByStartDesc
             (Long userId, LocalDateTime now, PageRequest pageRequest);
 
-    Collection<Booking> findAllByBooker_IdAndStartIsAfterOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 AND b.start > ?2 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByBooker_IdAndStartIsAfterOrderByStartDesc
             (Long userId, LocalDateTime now, PageRequest pageRequest);
 
-    Collection<Booking> findAllByBooker_IdAndEndIsBeforeOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 AND b.end < ?2 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByBooker_IdAndEndIsBeforeOrderByStartDesc
             (Long userId, LocalDateTime now, PageRequest pageRequest);
 
-    Collection<Booking> findAllByBooker_IdAndStatusOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 AND b.status = ?2 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByBooker_IdAndStatusOrderByStartDesc
             (Long userId, Status status, PageRequest pageRequest);
 
     /**
      * Для сервиса аренды, поиск по собственнику вещи
      */
-    Collection<Booking> findAllByItem_OwnerOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByItem_OwnerOrderByStartDesc
             (Long ownerId, PageRequest pageRequest);
 
     @Query(value = "" +
-            "SELECT * FROM bookings AS b " +
-            "JOIN items i on i.id = b.item_id " +
-            "WHERE i.owner_id= ?1 " +
-            "AND (?2 between start_date and end_date)"
-            , nativeQuery = true)
-    Collection<Booking> findAllByItem_OwnerAndStatusCurrentOrderByStartDesc
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 AND ?2 BETWEEN b.start AND b.end " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByItem_OwnerAndStatusCurrentOrderByStartDesc
             (Long ownerId, LocalDateTime now, PageRequest pageRequest);
 
-    Collection<Booking> findAllByItem_OwnerAndStartIsAfterOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 AND b.start > ?2 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByItem_OwnerAndStartIsAfterOrderByStartDesc
             (Long ownerId, LocalDateTime now, PageRequest pageRequest);
 
-    Collection<Booking> findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 AND b.end < ?2 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc
             (Long ownerId, LocalDateTime now, PageRequest pageRequest);
 
-    Collection<Booking> findAllByItem_OwnerAndStatusOrderByStartDesc
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 AND b.status = ?2 " +
+            "ORDER BY b.start DESC")
+    List<BookingDto> findAllByItem_OwnerAndStatusOrderByStartDesc
             (Long ownerId, Status status, PageRequest pageRequest);
+
+    /**
+     * Для сервиса аренды, вывод по курсору, поиск по арендатору вещи
+     */
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 " + SEEK_AFTER_CURSOR + SEEK_ORDER)
+    List<BookingDto> findPageByBooker(Long userId, LocalDateTime start, Long id, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 " + SEEK_AFTER_CURSOR +
+            "AND ?4 BETWEEN b.start AND b.end " + SEEK_ORDER)
+    List<BookingDto> findCurrentPageByBooker(
+            Long userId, LocalDateTime start, Long id, LocalDateTime now, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 " + SEEK_AFTER_CURSOR +
+            "AND b.start > ?4 " + SEEK_ORDER)
+    List<BookingDto> findFuturePageByBooker(
+            Long userId, LocalDateTime start, Long id, LocalDateTime now, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 " + SEEK_AFTER_CURSOR +
+            "AND b.end < ?4 " + SEEK_ORDER)
+    List<BookingDto> findPastPageByBooker(
+            Long userId, LocalDateTime start, Long id, LocalDateTime now, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE b.booker.id = ?1 " + SEEK_AFTER_CURSOR +
+            "AND b.status = ?4 " + SEEK_ORDER)
+    List<BookingDto> findPageByBookerAndStatus(
+            Long userId, LocalDateTime start, Long id, Status status, PageRequest pageRequest);
+
+    /**
+     * Для сервиса аренды, вывод по курсору, поиск по собственнику вещи
+     */
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 " + SEEK_AFTER_CURSOR + SEEK_ORDER)
+    List<BookingDto> findPageByOwner(Long ownerId, LocalDateTime start, Long id, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 " + SEEK_AFTER_CURSOR +
+            "AND ?4 BETWEEN b.start AND b.end " + SEEK_ORDER)
+    List<BookingDto> findCurrentPageByOwner(
+            Long ownerId, LocalDateTime start, Long id, LocalDateTime now, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 " + SEEK_AFTER_CURSOR +
+            "AND b.start > ?4 " + SEEK_ORDER)
+    List<BookingDto> findFuturePageByOwner(
+            Long ownerId, LocalDateTime start, Long id, LocalDateTime now, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 " + SEEK_AFTER_CURSOR +
+            "AND b.end < ?4 " + SEEK_ORDER)
+    List<BookingDto> findPastPageByOwner(
+            Long ownerId, LocalDateTime start, Long id, LocalDateTime now, PageRequest pageRequest);
+
+    @Query(value = "" +
+            SELECT_BOOKING_DTO +
+            "WHERE i.owner = ?1 " + SEEK_AFTER_CURSOR +
+            "AND b.status = ?4 " + SEEK_ORDER)
+    List<BookingDto> findPageByOwnerAndStatus(
+            Long ownerId, LocalDateTime start, Long id, Status status, PageRequest pageRequest);
 }
\ No newline at end of file
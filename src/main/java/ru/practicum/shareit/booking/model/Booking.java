@@ -17,20 +17,36 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id; // ид бронирования
     @Column(name = "start_date")
     private LocalDateTime start; // дата начала аренды
     @Column(name = "end_date")
     private LocalDateTime  end; // дата окончания аренды
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "item_id", referencedColumnName = "id")
     private Item item; // арендуемая вещь
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "booker_id", referencedColumnName = "id")
     private User booker; // пользователь арендующий вещь
     @Enumerated(EnumType.STRING)
     private Status status; // статус подтверждения аренды
+    @Version
+    private Long version; // версия записи для оптимистической блокировки
+
+    // в toString только ИД связанной сущности, без обхода графа и загрузки ленивых связей
+    @ToString.Include(name = "itemId")
+    private Long itemIdForLog() {
+        return item == null ? null : item.getId();
+    }
+
+    @ToString.Include(name = "bookerId")
+    private Long bookerIdForLog() {
+        return booker == null ? null : booker.getId();
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+/**
+ * Результат изменения статуса одной брони при массовом подтверждении
+ */
+@Data
+@AllArgsConstructor
+public class BookingApprovalResult {
+    private Long bookingId; // ид бронирования
+    private Status status; // новый статус, null - статус не изменён
+    private String error; // причина отказа, null - статус изменён
+
+    public static BookingApprovalResult success(Long bookingId, Status status) {
+        return new BookingApprovalResult(bookingId, status, null);
+    }
+
+    public static BookingApprovalResult failure(Long bookingId, String error) {
+        return new BookingApprovalResult(bookingId, null, error);
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ValidatorExceptions;
+
+import java.util.Base64;
+import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Курсор для постраничного вывода бронирований, позиция последней выданной брони (дата начала, ИД).
+ * Клиенту передаётся в виде непрозрачной строки.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingCursor {
+    // позиция перед первой бронью, все бронирования начинаются раньше
+    public static final BookingCursor FIRST = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    // курсор, указывающий на бронь
+    public static BookingCursor of(BookingDto bookingDto) {
+        return new BookingCursor(bookingDto.getStart(), bookingDto.getId());
+    }
+
+    // курсор из строки клиента, пустая строка - первая страница
+    public static BookingCursor decode(String cursor) {
+        if (cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+
+            return new BookingCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidatorExceptions("Некорректный курсор: " + cursor);
+        }
+    }
+
+    // строка курсора для клиента
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
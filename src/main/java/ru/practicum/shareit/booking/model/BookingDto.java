@@ -22,6 +22,12 @@ public class BookingDto {
     private User booker; // пользователь арендующий вещь
     private Status status; // статус подтверждения аренды
 
+    // для запросов-проекций списков бронирований (BookingRepository.SELECT_BOOKING_DTO), столбцы без сущностей
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end,
+                      Long itemId, String itemName, Long bookerId, Status status) {
+        this(id, start, end, itemId, new Item(itemId, itemName), new User(bookerId), status);
+    }
+
     @Data
     @Builder
     @NoArgsConstructor
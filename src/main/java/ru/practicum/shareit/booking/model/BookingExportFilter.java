@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выгрузки бронирований, незаданные (null) условия не применяются.
+ * Окно времени задаёт дату начала брони: from включительно, to не включительно.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingExportFilter {
+    private Long ownerId; // ид владельца вещи
+    private Long itemId; // ид вещи
+    private Status status; // статус брони
+    private LocalDateTime from; // начало брони не раньше
+    private LocalDateTime to; // начало брони раньше
+}
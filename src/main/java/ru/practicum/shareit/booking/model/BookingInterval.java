@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период аренды вещи, используется для проверки пересечения бронирований
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingInterval {
+    private final Long id; // ид бронирования
+    private final Long itemId; // ид арендуемой вещи
+    private final LocalDateTime start; // дата начала аренды
+    private final LocalDateTime end; // дата окончания аренды
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+
+    // пересекается ли период с [start, end), смежные периоды не пересекаются
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return this.start.isBefore(end) && this.end.isAfter(start);
+    }
+}
@@ -13,9 +13,10 @@ public class BookingMapper {
                 bookingDto.getId(),
                 bookingDto.getStart(),
                 bookingDto.getEnd(),
-                new Item(0L, 0L, null, null, null, null),
+                new Item(0L, 0L, null, null, null, null, null),
                 new User(),
-                bookingDto.getStatus());
+                bookingDto.getStatus(),
+                null);
     }
 
     //из booking в BookingDto
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Страница бронирований при выводе по курсору
+ */
+@Data
+@AllArgsConstructor
+public class BookingPage {
+    private List<BookingDto> bookings; // бронирования страницы
+    private String nextCursor; // курсор следующей страницы, null - страница последняя
+}
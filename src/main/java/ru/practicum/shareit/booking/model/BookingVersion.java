@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Версии брони и арендуемой вещи вместе с участниками брони, для ETag без загрузки сущностей
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingVersion {
+    private final Long id; // ид бронирования
+    private final Long bookerId; // ид арендатора
+    private final Long ownerId; // ид владельца вещи
+    private final Long version; // версия брони: даты и статус
+    private final Long itemVersion; // версия вещи: название вещи в ответе
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingExportFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookingExportService {
+    // проверка, что пользователь может выгружать бронирования
+    void checkAdmin(Long userId);
+
+    // запись бронирований по фильтру в поток в формате NDJSON, возвращает количество выгруженных броней
+    long exportBookings(BookingExportFilter filter, OutputStream out) throws IOException;
+}
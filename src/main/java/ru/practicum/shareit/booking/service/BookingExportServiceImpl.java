@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.NdjsonWriter;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.exception.ForbiddenException;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.booking.model.BookingExportFilter;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.Set;
+import java.util.Iterator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка бронирований в NDJSON (одна бронь на строку) с постоянным расходом памяти:
+ * строки читаются курсором порциями по EXPORT_FETCH_SIZE, после каждой порции контекст
+ * персистентности очищается, а записанное отправляется клиенту.
+ */
+@Slf4j
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Set<Long> adminIds;
+
+    public BookingExportServiceImpl(BookingRepository bookingRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${shareit.admin.user-ids:}") Set<Long> adminIds) {
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.adminIds = adminIds;
+    }
+
+    @Override
+    public void checkAdmin(Long userId) {
+        if (!adminIds.contains(userId)) {
+            throw new ForbiddenException("Пользователь с ИД " + userId + " не может выгружать бронирования.");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBookings(BookingExportFilter filter, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Booking> bookings = bookingRepository.streamForExport(filter);
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, BookingDto.class, out)) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                writer.write(BookingMapper.mapToBookingDto(iterator.next()));
+                if (++count % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        log.info("BookingExportService - выгружено броней: {}, фильтр: {}", count, filter);
+
+        return count;
+    }
+}
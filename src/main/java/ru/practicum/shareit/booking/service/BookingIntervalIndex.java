@@ -0,0 +1,220 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.util.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс в памяти для проверки пересечения бронирований вещи.
+ * Для каждой вещи хранятся периоды подтверждённых и ожидающих подтверждения броней, упорядоченные по дате начала.
+ * Пересекающийся с [start, end) период начинается не раньше start минус самая длинная бронь вещи,
+ * поэтому проверяются только периоды из этого диапазона - O(log n) на поиск и число броней в окне.
+ * Завершившиеся брони ни с чем новым не пересекутся и удаляются при изменении броней вещи и по расписанию.
+ * Индекс видит только брони своего экземпляра приложения, поэтому при блокировках в базе
+ * (shareit.bookings.lock.mode=DATABASE, несколько экземпляров) пересечения всегда проверяются запросом к базе.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final Comparator<BookingInterval> ORDER = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getId);
+
+    private final BookingRepository bookingRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ItemIntervals> items = new HashMap<>(); // ИД вещи -> периоды её броней
+    private final Map<Long, BookingInterval> bookings = new HashMap<>(); // ИД брони -> период
+
+    @Value("${shareit.bookings.overlap.index.enabled:true}")
+    private boolean enabled; // false - пересечения проверяются запросом к базе
+
+    @Value("${shareit.bookings.lock.mode:STRIPED}")
+    private ItemLocks.Mode lockMode;
+
+    // индекс используется, если он включён и брони не создаются другими экземплярами приложения
+    public boolean isEnabled() {
+        return enabled && lockMode != ItemLocks.Mode.DATABASE;
+    }
+
+    // построение индекса по броням из базы, завершившиеся брони ни с чем новым не пересекутся
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!isEnabled()) {
+            if (enabled) {
+                log.info("BookingIntervalIndex - индекс не используется в режиме блокировок {}", lockMode);
+            }
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            bookings.clear();
+            List<BookingInterval> intervals;
+            Long lastId = 0L;
+            do {
+                intervals = bookingRepository.findIntervals(
+                        BLOCKING_STATUSES, now, lastId, PageRequest.ofSize(LOAD_PAGE_SIZE));
+                intervals.forEach(this::add);
+                if (!intervals.isEmpty()) {
+                    lastId = intervals.get(intervals.size() - 1).getId();
+                }
+            } while (intervals.size() == LOAD_PAGE_SIZE);
+            log.info("BookingIntervalIndex - индекс построен, проиндексировано броней: {}", bookings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // есть ли у вещи подтверждённая или ожидающая бронь на период [start, end), кроме брони excludedId
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end, Long excludedId) {
+        if (!isEnabled()) {
+            return bookingRepository.existsOverlappingBooking(
+                    itemId, start, end, BLOCKING_STATUSES, excludedId == null ? 0L : excludedId);
+        }
+        lock.readLock().lock();
+        try {
+            ItemIntervals itemIntervals = items.get(itemId);
+            if (itemIntervals == null) {
+                return false;
+            }
+            BookingInterval from = new BookingInterval(Long.MIN_VALUE, itemId,
+                    start.minus(itemIntervals.maxDuration), start);
+            BookingInterval to = new BookingInterval(Long.MIN_VALUE, itemId, end, end);
+            for (BookingInterval interval : itemIntervals.intervals.subSet(from, true, to, false)) {
+                if (!interval.getId().equals(excludedId) && interval.overlaps(start, end)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // добавление или обновление брони, брони в других статусах из индекса удаляются,
+    // заодно удаляются завершившиеся брони этой вещи
+    public void put(Booking booking) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(booking.getId());
+            if (BLOCKING_STATUSES.contains(booking.getStatus())) {
+                add(BookingInterval.of(booking));
+            }
+            prune(booking.getItem().getId(), LocalDateTime.now());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // удаление завершившихся броней всех вещей, в том числе вещей, которые давно не бронировали
+    @Scheduled(fixedDelayString = "${shareit.bookings.overlap.index.prune-interval:PT1H}")
+    public void prune() {
+        if (!isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            int indexed = bookings.size();
+            for (Long itemId : new ArrayList<>(items.keySet())) {
+                prune(itemId, now);
+            }
+            log.debug("BookingIntervalIndex - удалено завершившихся броней: {}", indexed - bookings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(BookingInterval interval) {
+        ItemIntervals itemIntervals = items.computeIfAbsent(interval.getItemId(), key -> new ItemIntervals());
+        itemIntervals.intervals.add(interval);
+        Duration duration = duration(interval);
+        if (duration.compareTo(itemIntervals.maxDuration) > 0) {
+            itemIntervals.maxDuration = duration;
+        }
+        bookings.put(interval.getId(), interval);
+    }
+
+    private void delete(Long bookingId) {
+        BookingInterval interval = bookings.remove(bookingId);
+        if (interval == null) {
+            return;
+        }
+        ItemIntervals itemIntervals = items.get(interval.getItemId());
+        itemIntervals.intervals.remove(interval);
+        if (duration(interval).equals(itemIntervals.maxDuration)) {
+            shrink(interval.getItemId(), itemIntervals);
+        } else if (itemIntervals.intervals.isEmpty()) {
+            items.remove(interval.getItemId());
+        }
+    }
+
+    // завершившиеся брони вещи начались раньше now, поэтому просматриваются только такие периоды
+    private void prune(Long itemId, LocalDateTime now) {
+        ItemIntervals itemIntervals = items.get(itemId);
+        if (itemIntervals == null) {
+            return;
+        }
+        boolean pruned = false;
+        Iterator<BookingInterval> iterator = itemIntervals.intervals
+                .headSet(new BookingInterval(Long.MIN_VALUE, itemId, now, now), false)
+                .iterator();
+        while (iterator.hasNext()) {
+            BookingInterval interval = iterator.next();
+            if (!interval.getEnd().isAfter(now)) {
+                iterator.remove();
+                bookings.remove(interval.getId());
+                pruned = true;
+            }
+        }
+        if (pruned) {
+            shrink(itemId, itemIntervals);
+        }
+    }
+
+    // пересчёт самой длинной брони вещи после удаления периодов, чтобы окно поиска не оставалось широким
+    private void shrink(Long itemId, ItemIntervals itemIntervals) {
+        if (itemIntervals.intervals.isEmpty()) {
+            items.remove(itemId);
+            return;
+        }
+        itemIntervals.maxDuration = itemIntervals.intervals.stream()
+                .map(BookingIntervalIndex::duration)
+                .max(Comparator.naturalOrder())
+                .orElse(Duration.ZERO);
+    }
+
+    private static Duration duration(BookingInterval interval) {
+        return Duration.between(interval.getStart(), interval.getEnd());
+    }
+
+    // периоды броней одной вещи и самая длинная из них
+    private static class ItemIntervals {
+        private final NavigableSet<BookingInterval> intervals = new TreeSet<>(ORDER);
+        private Duration maxDuration = Duration.ZERO;
+    }
+}
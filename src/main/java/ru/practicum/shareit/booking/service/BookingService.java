@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingPage;
+import ru.practicum.shareit.booking.model.BookingApprovalResult;
 
+import java.util.List;
 import java.util.Collection;
 
 public interface BookingService {
@@ -12,15 +15,27 @@ public interface BookingService {
     // подтверждение или отклонение запроса на бронирование, может быть выполнено только владельцем вещи
     BookingDto setApprove(Long bookingId, Long userId, Boolean approved);
 
+    // подтверждение или отклонение списка броней владельцем вещей одним запросом, результат по каждой брони
+    List<BookingApprovalResult> setApproveAll(Long ownerId, Collection<Long> bookingIds, Boolean approved);
+
     // получение данных о конкретном бронировании для автора бронирования, либо владельца вещи
     BookingDto findByBookingIdAndUserId(Long bookingId, Long userId);
 
+    // ETag брони по версиям брони и вещи, с теми же проверками доступа, что и получение брони
+    String getBookingETag(Long bookingId, Long userId);
+
     // получение списка бронирований для пользователя, по статусу
     Collection<BookingDto> findBookingsByUserIdAndState(Long userId, String state, int from, int size);
 
     // получение списка бронирований владельца вещи, по статусу
     Collection<BookingDto> findBookingsByOwnerIdAndState(Long ownerId, String state, int from, int size);
 
+    // получение страницы бронирований для пользователя, по статусу, начиная с позиции курсора
+    BookingPage findBookingsByUserIdAndState(Long userId, String state, String cursor, int size);
+
+    // получение страницы бронирований владельца вещи, по статусу, начиная с позиции курсора
+    BookingPage findBookingsByOwnerIdAndState(Long ownerId, String state, String cursor, int size);
+
     // получение аренды, если не найдена - ошибка 404
     Booking getBookingOrNotFound(Long bookingId);
 }
@@ -4,18 +4,28 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.model.*;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.common.ETags;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.model.item.Item;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemViewCache;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 import ru.practicum.shareit.exception.ValidatorExceptions;
 
+import java.util.Map;
+import java.util.List;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -24,10 +34,28 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserServiceImpl userService;
     private final ItemServiceImpl itemService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemViewCache itemViewCache;
+    private final ItemLocks itemLocks;
+    private final OptimisticLockRetry optimisticLockRetry;
 
-    // создать бронирование
+    // создать бронирование, проверка пересечения и сохранение выполняются под блокировкой вещи
     @Override
     public BookingDto addBooking(Long userId, BookingDto bookingDto) {
+        return itemLocks.withItemLock(bookingDto.getItemId(), () -> createBooking(userId, bookingDto));
+    }
+
+    // подтверждение или отклонение запроса на бронирование, может быть выполнено только владельцем вещи,
+    // при конфликте версий брони изменение повторяется с перечитанным статусом
+    @Override
+    public BookingDto setApprove(Long bookingId, Long userId, Boolean approved) {
+        Long itemId = getBookingOrNotFound(bookingId).getItem().getId();
+
+        return optimisticLockRetry.execute(() ->
+                itemLocks.withItemLock(itemId, () -> changeStatus(bookingId, userId, approved)));
+    }
+
+    private BookingDto createBooking(Long userId, BookingDto bookingDto) {
         Item item = itemService.getItemOrNotFound(bookingDto.getItemId());
         User user = userService.getUserOrNotFound(userId);
 
@@ -40,6 +68,9 @@ public class BookingServiceImpl implements BookingService {
         if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
             throw new ValidatorExceptions("Начало бронирования раньше, времени окончания бронирования");
         }
+        if (bookingIntervalIndex.hasOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd(), null)) {
+            throw new DuplicateException("Вещь уже забронирована на это время");
+        }
 
         Booking booking = BookingMapper.mapToBooking(bookingDto);
         booking.setBooker(user);
@@ -47,21 +78,23 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(Status.WAITING);
 
         bookingRepository.save(booking);
+        bookingIntervalIndex.put(booking);
+        itemViewCache.evictBookings(item.getId());
         log.info("BookingService - в базу добавлена аренда: {} ", booking);
 
         return BookingMapper.mapToBookingDto(booking);
     }
 
-    // подтверждение или отклонение запроса на бронирование, может быть выполнено только владельцем вещи
-    @Override
-    public BookingDto setApprove(Long bookingId, Long userId, Boolean approved) {
+    // статус брони перечитывается под блокировкой, чтобы не затереть параллельное изменение,
+    // подтвердить или отклонить можно только ожидающую бронь
+    private BookingDto changeStatus(Long bookingId, Long userId, Boolean approved) {
         Booking booking = getBookingOrNotFound(bookingId);
-        if (booking.getStatus().equals(Status.APPROVED)) {
-            throw new ValidatorExceptions("Аренда уже подтверждена!");
+        if (!Status.WAITING.equals(booking.getStatus())) {
+            throw new ValidatorExceptions(statusAlreadyChanged(booking.getStatus()));
         }
-        User user = userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
 
-        if (!booking.getItem().getOwner().equals(user.getId())) {
+        if (!booking.getItem().getOwner().equals(userId)) {
             throw new NotFoundException("Пользователь не является владельцем вещи, в изменении статуса отказано");
         }
         if (approved) {
@@ -71,16 +104,66 @@ public class BookingServiceImpl implements BookingService {
         }
 
         bookingRepository.save(booking);
+        bookingIntervalIndex.put(booking);
+        itemViewCache.evictBookings(booking.getItem().getId());
         log.info("BookingService - у аренды: {}, изменён статус - {} ", booking, booking.getStatus());
 
         return BookingMapper.mapToBookingDto(booking);
     }
 
+    // подтверждение или отклонение списка броней владельцем вещей, под блокировками всех вещей из списка -
+    // как и у отдельных броней, смена статуса не пересекается по времени с другими операциями над вещью
+    @Override
+    public List<BookingApprovalResult> setApproveAll(Long ownerId, Collection<Long> bookingIds, Boolean approved) {
+        userService.checkUserExists(ownerId);
+        List<Long> itemIds = bookingRepository.findItemIdsByIdIn(bookingIds);
+
+        return itemLocks.withItemLocks(itemIds, () -> changeStatuses(ownerId, bookingIds, approved));
+    }
+
+    // брони и владельцы загружаются одним запросом, статус меняется UPDATE в транзакции только у броней,
+    // которые всё ещё ожидают подтверждения, если часть броней успели подтвердить или отклонить параллельно - конфликт
+    private List<BookingApprovalResult> changeStatuses(Long ownerId, Collection<Long> bookingIds, Boolean approved) {
+        Status newStatus = approved ? Status.APPROVED : Status.REJECTED;
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<BookingApprovalResult> results = new ArrayList<>();
+        List<Booking> changedBookings = new ArrayList<>();
+        for (Long bookingId : new LinkedHashSet<>(bookingIds)) {
+            Booking booking = bookings.get(bookingId);
+            String error = checkStatusChange(booking, bookingId, ownerId);
+            if (error != null) {
+                results.add(BookingApprovalResult.failure(bookingId, error));
+            } else {
+                results.add(BookingApprovalResult.success(bookingId, newStatus));
+                changedBookings.add(booking);
+            }
+        }
+        if (changedBookings.isEmpty()) {
+            return results;
+        }
+
+        List<Long> changedIds = changedBookings.stream().map(Booking::getId).collect(Collectors.toList());
+        int updated = bookingRepository.updateStatusIfUnchanged(changedIds, Status.WAITING, newStatus);
+        if (updated != changedIds.size()) {
+            throw new ConflictException("Статус части броней изменён параллельным запросом, повторите запрос");
+        }
+        for (Booking booking : changedBookings) {
+            booking.setStatus(newStatus);
+            bookingIntervalIndex.put(booking);
+            itemViewCache.evictBookings(booking.getItem().getId());
+        }
+        log.info("BookingService - у аренд: {}, изменён статус - {} ", changedIds, newStatus);
+
+        return results;
+    }
+
     // получение данных о конкретном бронировании для автора бронирования, либо владельца вещи
     @Override
     public BookingDto findByBookingIdAndUserId(Long bookingId, Long userId) {
         Booking booking = getBookingOrNotFound(bookingId);
-        userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
 
         if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().equals(userId)) {
             return BookingMapper.mapToBookingDto(booking);
@@ -89,32 +172,47 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    // ETag брони: версии брони и вещи меняются при любом изменении полей ответа
+    @Override
+    public String getBookingETag(Long bookingId, Long userId) {
+        BookingVersion bookingVersion = bookingRepository
+                .findVersionById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Аренда с ИД " + bookingId + " не найден."));
+        userService.checkUserExists(userId);
+
+        if (!bookingVersion.getBookerId().equals(userId) && !bookingVersion.getOwnerId().equals(userId)) {
+            throw new NotFoundException("В доступе отказано, пользователь не имеет отношения к бронированию");
+        }
+
+        return ETags.ofVersions("booking", bookingId, bookingVersion.getVersion(), bookingVersion.getItemVersion());
+    }
+
     // получение списка бронирований для пользователя, по статусу
     @Override
     public Collection<BookingDto> findBookingsByUserIdAndState(Long userId, String state, int from, int size) {
-        userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
         State enumState = State.getStateOrValidatorExceptions(state);
         PageRequest pageRequest = PageRequest.of(from / size, size);
 
         switch (enumState) {
             case ALL:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByBooker_IdOrderByStartDesc(userId, pageRequest));
+                return bookingRepository
+                        .findAllByBooker_IdOrderByStartDesc(userId, pageRequest);
             case CURRENT:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByBooker_IdAndStatusCurrentOrderByStartDesc(userId, LocalDateTime.now(), pageRequest));
+                return bookingRepository
+                        .findAllByBooker_IdAndStatusCurrentOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
             case FUTURE:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByBooker_IdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), pageRequest));
+                return bookingRepository
+                        .findAllByBooker_IdAndStartIsAfterOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
             case PAST:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageRequest));
+                return bookingRepository
+                        .findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(userId, LocalDateTime.now(), pageRequest);
             case WAITING:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByBooker_IdAndStatusOrderByStartDesc(userId, Status.WAITING, pageRequest));
+                return bookingRepository
+                        .findAllByBooker_IdAndStatusOrderByStartDesc(userId, Status.WAITING, pageRequest);
             case REJECTED:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByBooker_IdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageRequest));
+                return bookingRepository
+                        .findAllByBooker_IdAndStatusOrderByStartDesc(userId, Status.REJECTED, pageRequest);
             default:
                 return Collections.emptyList();
         }
@@ -123,34 +221,112 @@ public class BookingServiceImpl implements BookingService {
     // получение списка бронирований владельца вещи, по статусу
     @Override
     public Collection<BookingDto> findBookingsByOwnerIdAndState(Long ownerId, String state, int from, int size) {
-        userService.getUserOrNotFound(ownerId);
+        userService.checkUserExists(ownerId);
         State enumState = State.getStateOrValidatorExceptions(state);
         PageRequest pageRequest = PageRequest.of(from / size, size);
 
         switch (enumState) {
             case ALL:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByItem_OwnerOrderByStartDesc(ownerId, pageRequest));
+                return bookingRepository
+                        .findAllByItem_OwnerOrderByStartDesc(ownerId, pageRequest);
             case CURRENT:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByItem_OwnerAndStatusCurrentOrderByStartDesc(ownerId, LocalDateTime.now(), pageRequest));
+                return bookingRepository
+                        .findAllByItem_OwnerAndStatusCurrentOrderByStartDesc(ownerId, LocalDateTime.now(), pageRequest);
             case FUTURE:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(ownerId, LocalDateTime.now(), pageRequest));
+                return bookingRepository
+                        .findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(ownerId, LocalDateTime.now(), pageRequest);
             case PAST:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(ownerId, LocalDateTime.now(), pageRequest));
+                return bookingRepository
+                        .findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(ownerId, LocalDateTime.now(), pageRequest);
             case WAITING:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByItem_OwnerAndStatusOrderByStartDesc(ownerId, Status.WAITING, pageRequest));
+                return bookingRepository
+                        .findAllByItem_OwnerAndStatusOrderByStartDesc(ownerId, Status.WAITING, pageRequest);
             case REJECTED:
-                return BookingMapper.mapToBookingDto(bookingRepository
-                        .findAllByItem_OwnerAndStatusOrderByStartDesc(ownerId, Status.REJECTED, pageRequest));
+                return bookingRepository
+                        .findAllByItem_OwnerAndStatusOrderByStartDesc(ownerId, Status.REJECTED, pageRequest);
             default:
                 return Collections.emptyList();
         }
     }
 
+    // получение страницы бронирований для пользователя, по статусу, начиная с позиции курсора
+    @Override
+    public BookingPage findBookingsByUserIdAndState(Long userId, String state, String cursor, int size) {
+        userService.checkUserExists(userId);
+        State enumState = State.getStateOrValidatorExceptions(state);
+        BookingCursor position = BookingCursor.decode(cursor);
+        LocalDateTime start = position.getStart();
+        Long id = position.getId();
+        PageRequest pageRequest = PageRequest.ofSize(size);
+        List<BookingDto> bookings;
+
+        switch (enumState) {
+            case CURRENT:
+                bookings = bookingRepository
+                        .findCurrentPageByBooker(userId, start, id, LocalDateTime.now(), pageRequest);
+                break;
+            case FUTURE:
+                bookings = bookingRepository
+                        .findFuturePageByBooker(userId, start, id, LocalDateTime.now(), pageRequest);
+                break;
+            case PAST:
+                bookings = bookingRepository
+                        .findPastPageByBooker(userId, start, id, LocalDateTime.now(), pageRequest);
+                break;
+            case WAITING:
+                bookings = bookingRepository
+                        .findPageByBookerAndStatus(userId, start, id, Status.WAITING, pageRequest);
+                break;
+            case REJECTED:
+                bookings = bookingRepository
+                        .findPageByBookerAndStatus(userId, start, id, Status.REJECTED, pageRequest);
+                break;
+            default:
+                bookings = bookingRepository.findPageByBooker(userId, start, id, pageRequest);
+        }
+
+        return mapToBookingPage(bookings, size);
+    }
+
+    // получение страницы бронирований владельца вещи, по статусу, начиная с позиции курсора
+    @Override
+    public BookingPage findBookingsByOwnerIdAndState(Long ownerId, String state, String cursor, int size) {
+        userService.checkUserExists(ownerId);
+        State enumState = State.getStateOrValidatorExceptions(state);
+        BookingCursor position = BookingCursor.decode(cursor);
+        LocalDateTime start = position.getStart();
+        Long id = position.getId();
+        PageRequest pageRequest = PageRequest.ofSize(size);
+        List<BookingDto> bookings;
+
+        switch (enumState) {
+            case CURRENT:
+                bookings = bookingRepository
+                        .findCurrentPageByOwner(ownerId, start, id, LocalDateTime.now(), pageRequest);
+                break;
+            case FUTURE:
+                bookings = bookingRepository
+                        .findFuturePageByOwner(ownerId, start, id, LocalDateTime.now(), pageRequest);
+                break;
+            case PAST:
+                bookings = bookingRepository
+                        .findPastPageByOwner(ownerId, start, id, LocalDateTime.now(), pageRequest);
+                break;
+            case WAITING:
+                bookings = bookingRepository
+                        .findPageByOwnerAndStatus(ownerId, start, id, Status.WAITING, pageRequest);
+                break;
+            case REJECTED:
+                bookings = bookingRepository
+                        .findPageByOwnerAndStatus(ownerId, start, id, Status.REJECTED, pageRequest);
+                break;
+            default:
+                bookings = bookingRepository.findPageByOwner(ownerId, start, id, pageRequest);
+        }
+
+        return mapToBookingPage(bookings, size);
+    }
+
     // получение аренды, если не найдена - ошибка 404
     @Override
     public Booking getBookingOrNotFound(Long bookingId) {
@@ -158,4 +334,39 @@ public class BookingServiceImpl implements BookingService {
                 .findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Аренда с ИД " + bookingId + " не найден."));
     }
+
+    // причина, по которой статус брони при массовом подтверждении не меняется, null - изменение допустимо
+    private String checkStatusChange(Booking booking, Long bookingId, Long ownerId) {
+        if (booking == null) {
+            return "Аренда с ИД " + bookingId + " не найден.";
+        }
+        if (!Status.WAITING.equals(booking.getStatus())) {
+            return statusAlreadyChanged(booking.getStatus());
+        }
+        if (!booking.getItem().getOwner().equals(ownerId)) {
+            return "Пользователь не является владельцем вещи, в изменении статуса отказано";
+        }
+        return null;
+    }
+
+    // отказ в смене статуса брони, которая уже не ожидает подтверждения
+    private String statusAlreadyChanged(Status status) {
+        switch (status) {
+            case APPROVED:
+                return "Аренда уже подтверждена!";
+            case REJECTED:
+                return "Аренда уже отклонена!";
+            default:
+                return "Аренда отменена, статус не может быть изменён!";
+        }
+    }
+
+    // страница бронирований с курсором на последнюю бронь, если страница заполнена полностью
+    private BookingPage mapToBookingPage(List<BookingDto> bookingsDtos, int size) {
+        String nextCursor = bookingsDtos.size() < size
+                ? null
+                : BookingCursor.of(bookingsDtos.get(bookingsDtos.size() - 1)).encode();
+
+        return new BookingPage(bookingsDtos, nextCursor);
+    }
 }
\ No newline at end of file
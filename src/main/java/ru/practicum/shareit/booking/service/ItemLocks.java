@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Сериализация операций бронирования одной вещи, операции с разными вещами выполняются параллельно.
+ * Режимы (shareit.bookings.lock.mode):
+ * STRIPED - блокировки в памяти процесса, вещи распределены по фиксированному числу блокировок (полос);
+ * DATABASE - операция выполняется в транзакции, которая блокирует строку вещи SELECT ... FOR UPDATE,
+ * подходит для нескольких экземпляров приложения: индекс пересечений в памяти в этом режиме не используется
+ * (см. BookingIntervalIndex), пересечения проверяются запросом к базе под блокировкой строки;
+ * NONE - без блокировок.
+ */
+@Slf4j
+@Component
+public class ItemLocks {
+    public enum Mode {
+        NONE,
+        STRIPED,
+        DATABASE
+    }
+
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Lock[] stripes;
+    private final Mode mode;
+
+    public ItemLocks(ItemRepository itemRepository,
+                     PlatformTransactionManager transactionManager,
+                     @Value("${shareit.bookings.lock.mode:STRIPED}") Mode mode,
+                     @Value("${shareit.bookings.lock.stripes:64}") int stripes) {
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.stripes = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        log.info("ItemLocks - режим блокировок бронирований: {}, полос: {}", mode, stripes);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    // выполнение операции под блокировкой вещи
+    public <T> T withItemLock(Long itemId, Supplier<T> operation) {
+        switch (mode) {
+            case STRIPED:
+                Lock lock = getStripe(itemId);
+                lock.lock();
+                try {
+                    return operation.get();
+                } finally {
+                    lock.unlock();
+                }
+            case DATABASE:
+                return transactionTemplate.execute(status -> {
+                    itemRepository.findAndLockById(itemId)
+                            .orElseThrow(() -> new NotFoundException("Вещь с ИД " + itemId + " не найден."));
+                    return operation.get();
+                });
+            default:
+                return operation.get();
+        }
+    }
+
+    // выполнение операции в одной транзакции под блокировками нескольких вещей: блокировки берутся по возрастанию
+    // номеров полос или ИД вещей, чтобы параллельные операции не ждали друг друга по кругу, и снимаются после
+    // фиксации транзакции
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> operation) {
+        switch (mode) {
+            case STRIPED:
+                List<Lock> locked = new ArrayList<>();
+                try {
+                    for (Integer stripe : itemIds.stream()
+                            .map(this::getStripeIndex)
+                            .collect(Collectors.toCollection(TreeSet::new))) {
+                        stripes[stripe].lock();
+                        locked.add(stripes[stripe]);
+                    }
+                    return transactionTemplate.execute(status -> operation.get());
+                } finally {
+                    locked.forEach(Lock::unlock);
+                }
+            case DATABASE:
+                return transactionTemplate.execute(status -> {
+                    for (Long itemId : new TreeSet<>(itemIds)) {
+                        itemRepository.findAndLockById(itemId)
+                                .orElseThrow(() -> new NotFoundException("Вещь с ИД " + itemId + " не найден."));
+                    }
+                    return operation.get();
+                });
+            default:
+                return transactionTemplate.execute(status -> operation.get());
+        }
+    }
+
+    private Lock getStripe(Long itemId) {
+        return stripes[getStripeIndex(itemId)];
+    }
+
+    private int getStripeIndex(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return Math.floorMod(hash ^ (hash >>> 16), stripes.length);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.exception.ConflictException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Повтор операции при конфликте версий записи (@Version): операция перечитывает данные и выполняется заново
+ * не более max-attempts раз, между попытками пауза со случайной задержкой, растущей вдвое до max-backoff.
+ * Если все попытки неудачны - ConflictException (409).
+ */
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticLockRetry(@Value("${shareit.bookings.retry.max-attempts:5}") int maxAttempts,
+                               @Value("${shareit.bookings.retry.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${shareit.bookings.retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoff.toMillis();
+        this.maxBackoffMillis = maxBackoff.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> operation) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("OptimisticLockRetry - конфликт версий не разрешён за {} попыток", attempt);
+                    throw new ConflictException("Запись изменена параллельным запросом, повторите запрос");
+                }
+                log.info("OptimisticLockRetry - конфликт версий, попытка {} из {}", attempt, maxAttempts);
+                pause(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    private void pause(long backoff) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Запись изменена параллельным запросом, повторите запрос");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.common;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Строгие ETag для условных GET-запросов (If-None-Match -> 304).
+ * Строятся по версиям записей (@Version), количеству и последним ИД связанных строк - одним запросом
+ * до загрузки и преобразования сущностей.
+ */
+public final class ETags {
+    private ETags() {
+    }
+
+    // ETag из префикса и версий записей, от которых зависит ответ
+    public static String ofVersions(String prefix, Object... versions) {
+        return Arrays.stream(versions)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"" + prefix + "-", "\""));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Объединение одновременных одинаковых загрузок: пока загрузка по ключу выполняется, остальные вызовы
+ * с тем же ключом ждут её и получают тот же результат или то же исключение. Результат не хранится после
+ * завершения загрузки, это не кэш. Внутри транзакции загрузка не объединяется: сущность должна принадлежать
+ * контексту персистентности вызывающего. Метрики shareit.single.flight.loads и shareit.single.flight.collapsed
+ * с тегом name - выполненные и объединённые загрузки.
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter loads;
+    private final Counter collapsed;
+
+    public SingleFlight(String name, boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.loads = Counter.builder("shareit.single.flight.loads")
+                .description("Загрузки, выполненные через объединение одинаковых запросов")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.collapsed = Counter.builder("shareit.single.flight.collapsed")
+                .description("Запросы, получившие результат уже выполнявшейся загрузки")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
+        }
+        CompletableFuture<V> ownLoad = new CompletableFuture<>();
+        CompletableFuture<V> runningLoad = inFlight.putIfAbsent(key, ownLoad);
+        if (runningLoad != null) {
+            collapsed.increment();
+            return await(runningLoad);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.get();
+            ownLoad.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            ownLoad.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ownLoad);
+        }
+    }
+
+    // ожидание чужой загрузки, исключение загрузки пробрасывается как есть, например NotFoundException
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.common;
+
+import ru.practicum.shareit.user.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.item.model.item.Item;
+import org.springframework.context.annotation.Bean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Объединение одновременных загрузок вещей и пользователей по ИД, shareit.lookups.single-flight.enabled=false
+ * отключает объединение.
+ */
+@Configuration
+public class SingleFlightConfig {
+    @Value("${shareit.lookups.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Bean
+    public SingleFlight<Long, Item> itemLoads(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SingleFlight<>("item", enabled, meterRegistry.getIfAvailable(CompositeMeterRegistry::new));
+    }
+
+    @Bean
+    public SingleFlight<Long, User> userLoads(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new SingleFlight<>("user", enabled, meterRegistry.getIfAvailable(CompositeMeterRegistry::new));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate в памяти процесса: JCache поверх Caffeine, области создаются по
+ * HibernateCacheProperties и передаются Hibernate готовым CacheManager. У каждого контекста Spring свой
+ * CacheManager, чтобы контексты с разными базами (тесты) не видели записи друг друга.
+ * Попадания и промахи по областям публикуются метриками hibernate.second.level.cache.* и
+ * hibernate.cache.query.* (hibernate-micrometer, нужен hibernate.generate_statistics).
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+    public static final String CACHE_MANAGER_PROPERTY = "hibernate.javax.cache.cache_manager";
+    public static final String MISSING_CACHE_PROPERTY = "hibernate.javax.cache.missing_cache_strategy";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        properties.getRegions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+            if (region.getExpireAfterWrite() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        log.info("HibernateCacheConfig - созданы области кэша второго уровня: {}", properties.getRegions().keySet());
+
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager,
+                                                                  HibernateCacheProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(CACHE_MANAGER_PROPERTY, hibernateCacheManager);
+            hibernateProperties.put(MISSING_CACHE_PROPERTY, properties.getMissingCacheStrategy());
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common.cache;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import ru.practicum.shareit.item.repository.CommentRepository;
+
+import java.util.Map;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+
+/**
+ * Настройки областей кэша второго уровня Hibernate. Области сущностей (@Cache) и запросов создаются по умолчанию,
+ * shareit.cache.regions.<область>.maximum-size и .expire-after-write меняют их или добавляют новые.
+ * shareit.cache.missing-cache-strategy - что делать с областью, которой нет в настройках: create-warn создаёт её
+ * с настройками JCache по умолчанию и пишет предупреждение, fail (в тестах) - ошибка при запуске.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.cache")
+public class HibernateCacheProperties {
+    private String missingCacheStrategy = "create-warn";
+    private Map<String, Region> regions = defaultRegions();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private long maximumSize = 10_000; // максимальное количество записей в области
+        private Duration expireAfterWrite; // время жизни записи, null - без ограничения
+    }
+
+    private static Map<String, Region> defaultRegions() {
+        Map<String, Region> regions = new LinkedHashMap<>();
+        regions.put("users", new Region(10_000, Duration.ofMinutes(10)));
+        regions.put("items", new Region(10_000, Duration.ofMinutes(10)));
+        regions.put("requests", new Region(10_000, Duration.ofMinutes(10)));
+        regions.put("comments", new Region(50_000, Duration.ofMinutes(10)));
+        regions.put(CommentRepository.COMMENTS_BY_ITEM_REGION, new Region(10_000, Duration.ofMinutes(5)));
+        regions.put("default-query-results-region", new Region(1_000, Duration.ofMinutes(5)));
+        regions.put("default-update-timestamps-region", new Region(1_000, null));
+
+        return regions;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.common.logging;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Значения для подстановки в сообщения журнала. Строка строится в toString, то есть только если сообщение
+ * действительно пишется, и ограничена по длине: для списков - количество и первые ИД, для объектов -
+ * первые MAX_LENGTH символов toString.
+ */
+public final class LogPayload {
+    public static final int MAX_IDS = 10;
+    public static final int MAX_LENGTH = 300;
+
+    private LogPayload() {
+    }
+
+    // количество элементов и ИД первых MAX_IDS, например "3 шт., ИД: [1, 2, 3]"
+    public static <T> Object ids(Collection<T> values, Function<? super T, ?> idGetter) {
+        return new Object() {
+            @Override
+            public String toString() {
+                if (values == null) {
+                    return "null";
+                }
+                StringBuilder builder = new StringBuilder()
+                        .append(values.size()).append(" шт., ИД: [");
+                int count = 0;
+                for (T value : values) {
+                    if (count == MAX_IDS) {
+                        builder.append(", ...");
+                        break;
+                    }
+                    if (count++ > 0) {
+                        builder.append(", ");
+                    }
+                    builder.append(idGetter.apply(value));
+                }
+
+                return builder.append(']').toString();
+            }
+        };
+    }
+
+    // toString объекта, обрезанный до MAX_LENGTH символов
+    public static Object capped(Object value) {
+        return new Object() {
+            @Override
+            public String toString() {
+                String text = String.valueOf(value);
+                if (text.length() <= MAX_LENGTH) {
+                    return text;
+                }
+
+                return text.substring(0, MAX_LENGTH) + "... (" + text.length() + " символов)";
+            }
+        };
+    }
+}
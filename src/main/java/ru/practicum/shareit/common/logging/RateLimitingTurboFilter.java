@@ -0,0 +1,155 @@
+package ru.practicum.shareit.common.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.LoggerFactory;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.classic.turbo.TurboFilter;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Ограничение частоты отладочных сообщений журнала: по каждому месту вызова (логгер и шаблон сообщения)
+ * пишется не больше eventsPerSecond сообщений в секунду, остальные отбрасываются. Ограничиваются только DEBUG
+ * и TRACE, INFO - только у логгеров из limitedLoggers (имена через запятую, вместе с дочерними логгерами),
+ * остальные INFO, WARN и ERROR пишутся всегда. Раз в summaryPeriodSeconds количество отброшенных сообщений
+ * по местам вызова пишется сводкой. Подключается в logback-spring.xml, eventsPerSecond = 0 - без ограничения.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+    private static final int MAX_KEYS = 1000; // места вызова сверх этого числа не ограничиваются
+
+    private final org.slf4j.Logger log = LoggerFactory.getLogger(RateLimitingTurboFilter.class);
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private int eventsPerSecond;
+    private List<String> limitedLoggers = List.of();
+    private int summaryPeriodSeconds = 60;
+    private ScheduledExecutorService summaryExecutor;
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public void setLimitedLoggers(String limitedLoggers) {
+        this.limitedLoggers = Arrays.stream(limitedLoggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public void setSummaryPeriodSeconds(int summaryPeriodSeconds) {
+        this.summaryPeriodSeconds = summaryPeriodSeconds;
+    }
+
+    @Override
+    public void start() {
+        if (summaryPeriodSeconds > 0) {
+            summaryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "log-rate-limit-summary");
+                thread.setDaemon(true);
+                return thread;
+            });
+            summaryExecutor.scheduleAtFixedRate(
+                    this::logSummary, summaryPeriodSeconds, summaryPeriodSeconds, TimeUnit.SECONDS);
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        if (summaryExecutor != null) {
+            summaryExecutor.shutdownNow();
+            summaryExecutor = null;
+        }
+        logSummary();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || eventsPerSecond <= 0 || format == null || level == null
+                || !isLimited(logger, level) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String key = logger.getName() + '|' + format;
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_KEYS) {
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(logger.getName(), format));
+        }
+
+        synchronized (window) {
+            long second = System.currentTimeMillis() / 1000;
+            if (window.second != second) {
+                window.second = second;
+                window.count = 0;
+            }
+            if (++window.count > eventsPerSecond) {
+                window.suppressed++;
+                return FilterReply.DENY;
+            }
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+
+    // количество отброшенных с прошлой сводки сообщений по местам вызова, счётчики обнуляются
+    Map<String, Long> drainSuppressed() {
+        Map<String, Long> suppressed = new LinkedHashMap<>();
+        for (Window window : windows.values()) {
+            synchronized (window) {
+                if (window.suppressed > 0) {
+                    suppressed.put(window.loggerName + " [" + window.format + "]", window.suppressed);
+                    window.suppressed = 0;
+                }
+            }
+        }
+        return suppressed;
+    }
+
+    // сводка пишется логгером фильтра, который сам не ограничивается
+    private void logSummary() {
+        Map<String, Long> suppressed = drainSuppressed();
+        if (!suppressed.isEmpty()) {
+            log.info("RateLimitingTurboFilter - пропущено сообщений: {}, по местам вызова: {}",
+                    suppressed.values().stream().mapToLong(Long::longValue).sum(), suppressed);
+        }
+    }
+
+    // DEBUG и TRACE ограничиваются всегда, INFO - только у перечисленных логгеров
+    private boolean isLimited(Logger logger, Level level) {
+        if (level.isGreaterOrEqual(Level.WARN) || logger.getName().equals(RateLimitingTurboFilter.class.getName())) {
+            return false;
+        }
+        if (!level.isGreaterOrEqual(Level.INFO)) {
+            return true;
+        }
+        String name = logger.getName();
+        return limitedLoggers.stream()
+                .anyMatch(limited -> name.equals(limited) || name.startsWith(limited + "."));
+    }
+
+    private static class Window {
+        private final String loggerName;
+        private final String format;
+        private long second;
+        private int count;
+        private long suppressed; // отброшено с прошлой сводки
+
+        private Window(String loggerName, String format) {
+            this.loggerName = loggerName;
+            this.format = format;
+        }
+    }
+}
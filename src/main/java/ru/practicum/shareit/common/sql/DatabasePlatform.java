@@ -0,0 +1,32 @@
+package ru.practicum.shareit.common.sql;
+
+import javax.sql.DataSource;
+import org.springframework.boot.jdbc.init.PlatformPlaceholderDatabaseDriverResolver;
+
+/**
+ * Платформа базы данных (h2, postgresql), определённая по подключению: по ней выбирается схема
+ * schema-<платформа>.sql и включаются запросы, которые есть только в PostgreSQL.
+ */
+public class DatabasePlatform {
+    public static final String PLACEHOLDER = "@@platform@@";
+    public static final String POSTGRESQL = "postgresql";
+
+    private final String id;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.id = new PlatformPlaceholderDatabaseDriverResolver().resolveAll(dataSource, PLACEHOLDER).get(0);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isPostgresql() {
+        return POSTGRESQL.equals(id);
+    }
+
+    // подстановка платформы в пути к скриптам вида classpath:schema-@@platform@@.sql
+    public String resolve(String location) {
+        return location.replace(PLACEHOLDER, id);
+    }
+}
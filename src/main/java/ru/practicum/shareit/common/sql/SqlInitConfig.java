@@ -0,0 +1,43 @@
+package ru.practicum.shareit.common.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import javax.sql.DataSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+
+import java.util.stream.Collectors;
+
+/**
+ * Инициализация схемы по платформе подключения: в spring.sql.init.schema-locations вместо @@platform@@
+ * подставляется платформа базы, без профиля встроенная H2 получает schema-h2.sql, PostgreSQL - schema-postgresql.sql.
+ * Бин заменяет инициализатор из автоконфигурации Spring Boot.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class SqlInitConfig {
+    @Bean
+    public DatabasePlatform databasePlatform(DataSource dataSource) {
+        DatabasePlatform databasePlatform = new DatabasePlatform(dataSource);
+        log.info("SqlInitConfig - платформа базы данных: {}", databasePlatform.getId());
+
+        return databasePlatform;
+    }
+
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
+            DataSource dataSource, SqlInitializationProperties properties, DatabasePlatform databasePlatform) {
+        DatabaseInitializationSettings settings = SqlDataSourceScriptDatabaseInitializer.getSettings(properties);
+        if (settings.getSchemaLocations() != null) {
+            settings.setSchemaLocations(settings.getSchemaLocations().stream()
+                    .map(databasePlatform::resolve)
+                    .collect(Collectors.toList()));
+        }
+
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+}
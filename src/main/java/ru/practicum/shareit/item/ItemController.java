@@ -1,13 +1,20 @@
 package ru.practicum.shareit.item;
 
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.common.logging.LogPayload;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.model.item.ItemDto;
+import org.springframework.http.MediaType;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.model.item.ItemImportResult;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.model.comment.CommentDto;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
@@ -20,16 +27,26 @@ import javax.validation.constraints.PositiveOrZero;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     // создать вещь
     @PostMapping
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                            @Valid @RequestBody ItemDto itemDto) {
-        log.info("ItemController - создание вещи: {}, от пользователя с ИД: {}", itemDto, userId);
+        log.info("ItemController - создание вещи: {}, от пользователя с ИД: {}", LogPayload.capped(itemDto), userId);
 
         return itemService.addItem(userId, itemDto);
     }
 
+    // массовая загрузка вещей из NDJSON (вещь на строку) или JSON-массива, отчёт с ошибками по строкам
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ItemImportResult importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        InputStream body) throws IOException {
+        log.info("ItemController - массовая загрузка вещей от пользователя с ИД: {}", userId);
+
+        return itemImportService.importItems(userId, body);
+    }
+
     // получение всех вещей пользователя по его ИД
     @GetMapping
     public Collection<ItemDto> getItems(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -41,10 +58,15 @@ public class ItemController {
     }
 
     // получить вещь по ИД и пользователю
+    // ETag по версиям вещи, комментариев и бронирований, при совпадении с If-None-Match - 304 без загрузки вещи
     @GetMapping("/{itemId}")
     public ItemDto getItemByItemIdAndUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @PathVariable Long itemId) {
+                                            @PathVariable Long itemId,
+                                            WebRequest request) {
         log.info("ItemController - получение вещи по ИД: {}", itemId);
+        if (request.checkNotModified(itemService.getItemETag(itemId, userId))) {
+            return null;
+        }
 
         return itemService.getItemByItemIdAndUserId(itemId, userId);
     }
@@ -54,7 +76,7 @@ public class ItemController {
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @PathVariable Long itemId,
                               @RequestBody ItemDto itemDto) {
-        log.info("ItemController - обновление вещи с ИД: {}, новое значение: {}", itemId, itemDto);
+        log.info("ItemController - обновление вещи с ИД: {}, новое значение: {}", itemId, LogPayload.capped(itemDto));
 
         return itemService.updateItem(userId, itemId, itemDto);
     }
@@ -72,7 +94,7 @@ public class ItemController {
                                            @RequestParam(defaultValue = "0")  @PositiveOrZero() int from,
                                            @RequestParam(defaultValue = "10") @Positive() int size,
                                            @RequestParam String text) {
-        log.info("ItemController - пользователь с ИД: {} , запросил поиск: [{}]", userId, text);
+        log.info("ItemController - пользователь с ИД: {} , запросил поиск: [{}]", userId, LogPayload.capped(text));
 
         return itemService.searchItems(text, from, size);
     }
@@ -82,7 +104,8 @@ public class ItemController {
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @PathVariable Long itemId,
                                  @Valid @RequestBody CommentDto commentDto) {
-        log.info("ItemController - добавление комментария: {}, от пользователь с ИД: {}", commentDto, userId);
+        log.info("ItemController - добавление комментария: {}, от пользователь с ИД: {}",
+                LogPayload.capped(commentDto), userId);
         return itemService.addComment(userId, itemId, commentDto);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model.comment;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.item.model.item.Item;
 
@@ -11,6 +13,8 @@ import java.time.LocalDateTime;
  * Модель комментария к аренде вещи
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "comments")
 @Getter
 @Setter
 @Builder
@@ -20,23 +24,37 @@ import java.time.LocalDateTime;
 @Table(name = "comments")
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     private Long id;
 
     @Column
     private String text;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "item_id")
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "author_id")
     private User author;
 
     @Column
     private LocalDateTime created;
 
+    // в toString только ИД связанной сущности, без обхода графа и загрузки ленивых связей
+    @ToString.Include(name = "itemId")
+    private Long itemIdForLog() {
+        return item == null ? null : item.getId();
+    }
+
+    @ToString.Include(name = "authorId")
+    private Long authorIdForLog() {
+        return author == null ? null : author.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model.item;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import javax.persistence.*;
@@ -9,6 +11,8 @@ import javax.persistence.*;
  * Модель вещи которая может быть арендована
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Getter
 @Setter
 @Builder
@@ -18,7 +22,8 @@ import javax.persistence.*;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id; // ид вещи
 
     @Column(name = "owner_id")
@@ -33,10 +38,20 @@ public class Item {
     @Column
     private Boolean available; // доступность вещи для аренды, проставлять владелец, по умолчанию true.
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    @Version
+    private Long version; // версия записи для оптимистической блокировки
+
+    // в toString только ИД связанной сущности, без обхода графа и загрузки ленивых связей
+    @ToString.Include(name = "requestId")
+    private Long requestIdForLog() {
+        return request == null ? null : request.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.model.item;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Итог массовой загрузки вещей: сколько записей прочитано и сохранено, ошибки по строкам.
+ * Ошибок в отчёте не больше MAX_ERRORS, остальные только учитываются в failed.
+ */
+@Data
+public class ItemImportResult {
+    public static final int MAX_ERRORS = 1000;
+
+    private long total; // прочитано записей
+    private long imported; // сохранено вещей
+    private long failed; // записей с ошибками
+    private final List<LineError> errors = new ArrayList<>();
+
+    public void addError(long line, String error) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new LineError(line, error));
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class LineError {
+        private long line; // номер строки NDJSON или элемента массива, с 1
+        private String error;
+    }
+}
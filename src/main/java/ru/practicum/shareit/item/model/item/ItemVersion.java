@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.model.item;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Версии вещи, её комментариев и бронирований одним запросом, для ETag без загрузки сущностей.
+ * Комментарии не изменяются, поэтому для них достаточно количества и последнего ИД, имена авторов - по версиям
+ * пользователей. Суммы и максимумы по пустым спискам - null.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ItemVersion {
+    private final Long id; // ид вещи
+    private final Long ownerId; // ид владельца вещи
+    private final Long version; // версия вещи: название, описание, доступность
+    private final Long comments; // количество комментариев
+    private final Long lastCommentId; // ид последнего комментария
+    private final Long authorsVersion; // сумма версий авторов комментариев: имена авторов
+    private final Long bookings; // количество бронирований вещи
+    private final Long lastBookingId; // ид последнего бронирования
+    private final Long bookingsVersion; // сумма версий бронирований: даты и статусы
+    private final Long finishedBookings; // количество бронирований, закончившихся к моменту запроса
+}
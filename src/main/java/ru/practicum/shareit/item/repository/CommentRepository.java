@@ -1,10 +1,41 @@
 package ru.practicum.shareit.item.repository;
 
 import ru.practicum.shareit.item.model.comment.Comment;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Collection;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItem_Id(Long itemId);
+    String COMMENTS_BY_ITEM_REGION = "comments-by-item";
+
+    /**
+     * Комментарии вещи сразу в виде CommentDto с именем автора, результат кэшируется в области
+     * COMMENTS_BY_ITEM_REGION значениями столбцов - при попадании в кэш не нужны ни сущности, ни ленивые связи.
+     * Запись в таблицу comments сбрасывает закэшированные результаты
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = COMMENTS_BY_ITEM_REGION)})
+    @Query(value = "" +
+            "SELECT new ru.practicum.shareit.item.model.comment.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = ?1")
+    List<CommentDto> findAllByItem_Id(Long itemId);
+
+    /**
+     * Для списка вещей, вещь нужна только по ИД, автор - для имени в ответе
+     */
+    @Query(value = "" +
+            "SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN ?1")
+    List<Comment> findAllByItem_IdIn(Collection<Long> itemIds);
 }
\ No newline at end of file
@@ -1,13 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
 import ru.practicum.shareit.item.model.item.Item;
+import ru.practicum.shareit.item.model.item.ItemVersion;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
+import java.time.LocalDateTime;
+import javax.persistence.LockModeType;
+import java.util.Collection;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Блокировка строки вещи до конца транзакции (SELECT ... FOR UPDATE), для сериализации бронирований вещи
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "" +
+            "SELECT i FROM Item i " +
+            "WHERE i.id = ?1")
+    Optional<Item> findAndLockById(Long itemId);
+
+    /**
+     * Для ETag вещи, версии вещи, комментариев и бронирований одним запросом без загрузки сущностей,
+     * закончившиеся к ?2 бронирования - для смены последней и ближайшей аренды со временем
+     */
+    @Query(value = "" +
+            "SELECT new ru.practicum.shareit.item.model.item.ItemVersion(i.id, i.owner, i.version, " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.item.id = i.id), " +
+            "(SELECT MAX(c.id) FROM Comment c WHERE c.item.id = i.id), " +
+            "(SELECT SUM(a.version) FROM Comment c JOIN c.author a WHERE c.item.id = i.id), " +
+            "(SELECT COUNT(b) FROM Booking b WHERE b.item.id = i.id), " +
+            "(SELECT MAX(b.id) FROM Booking b WHERE b.item.id = i.id), " +
+            "(SELECT SUM(b.version) FROM Booking b WHERE b.item.id = i.id), " +
+            "(SELECT COUNT(b) FROM Booking b WHERE b.item.id = i.id AND b.end < ?2)) " +
+            "FROM Item i " +
+            "WHERE i.id = ?1")
+    Optional<ItemVersion> findVersionById(Long itemId, LocalDateTime now);
+
     @Query(value = "" +
             "SELECT i from Item i " +
             "where (LOWER(i.name)    like CONCAT('%',LOWER(?1),'%') " +
@@ -15,7 +47,41 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "AND i.available = true")
     List<Item> searchByText(String text, PageRequest pageRequest);
 
+    /**
+     * Поиск для PostgreSQL: те же вещи, что и searchByText, подстрока ищется по триграммным индексам
+     * из schema-postgresql.sql, результат упорядочен по релевантности словам запроса и сходству названия
+     */
+    @Query(value = "" +
+            "SELECT * FROM items AS i " +
+            "WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE CONCAT('%', LOWER(?1), '%') " +
+            "OR LOWER(i.description) LIKE CONCAT('%', LOWER(?1), '%')) " +
+            "ORDER BY ts_rank(" +
+            "setweight(to_tsvector('simple', COALESCE(i.name, '')), 'A') || " +
+            "setweight(to_tsvector('simple', COALESCE(i.description, '')), 'B'), " +
+            "plainto_tsquery('simple', ?1)) DESC, " +
+            "similarity(LOWER(i.name), LOWER(?1)) DESC, i.id"
+            , nativeQuery = true)
+    List<Item> searchByTextFullText(String text, PageRequest pageRequest);
+
+    @Query(value = "" +
+            "SELECT i.id from Item i " +
+            "where (LOWER(i.name)    like CONCAT('%',LOWER(?1),'%') " +
+            "OR LOWER(i.description) like CONCAT('%',LOWER(?1),'%'))" +
+            "AND i.available = true")
+    List<Long> searchIdsByText(String text);
+
     List<Item> findAllByOwner(Long userId, PageRequest pageRequest);
 
+    @Query(value = "" +
+            "SELECT i from Item i " +
+            "where i.request.id = ?1")
     List<Item> findAllByRequest_Id(Long itemRequestId);
+
+    @Query(value = "" +
+            "SELECT i from Item i " +
+            "where i.request.id IN ?1")
+    List<Item> findAllByRequest_IdIn(Collection<Long> itemRequestIds);
+
+    List<Item> findAllByAvailableIsTrueAndIdGreaterThanOrderById(Long itemId, PageRequest pageRequest);
 }
\ No newline at end of file
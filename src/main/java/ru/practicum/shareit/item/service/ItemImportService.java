@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.item.ItemImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ItemImportService {
+    // массовая загрузка вещей пользователя из NDJSON или JSON-массива, тело читается потоком
+    ItemImportResult importItems(Long userId, InputStream body) throws IOException;
+}
@@ -0,0 +1,210 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import ru.practicum.shareit.item.model.item.Item;
+import com.fasterxml.jackson.core.JsonParseException;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import com.fasterxml.jackson.databind.MappingIterator;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.item.ItemMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.model.item.ItemImportResult;
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.validation.Validator;
+import javax.validation.ConstraintViolation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Массовая загрузка вещей. Тело читается потоком: NDJSON построчно, JSON-массив поэлементно,
+ * в памяти держится только текущая пачка. Каждая вещь проверяется как в POST /items, владелец проверяется
+ * один раз на загрузку, запрос вещи (requestId) - один раз на каждое значение.
+ * Пачка сохраняется в отдельной транзакции, ошибка сохранения отмечается для всех строк пачки.
+ */
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemRequestService itemRequestService;
+    private final UserService userService;
+    private final Validator validator;
+    private final ObjectReader itemReader;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemImportServiceImpl(ItemRepository itemRepository,
+                                 ItemSearchIndex itemSearchIndex,
+                                 ItemRequestService itemRequestService,
+                                 UserService userService,
+                                 Validator validator,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${shareit.items.import.batch-size:500}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemRequestService = itemRequestService;
+        this.userService = userService;
+        this.validator = validator;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ItemImportResult importItems(Long userId, InputStream body) throws IOException {
+        userService.checkUserExists(userId);
+        Import itemImport = new Import(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+        if (startsWithArray(reader)) {
+            readArray(reader, itemImport);
+        } else {
+            readLines(reader, itemImport);
+        }
+        itemImport.flush();
+        log.info("ItemImportService - загрузка вещей пользователя с ИД: {}, прочитано: {}, сохранено: {}, ошибок: {}",
+                userId, itemImport.result.getTotal(), itemImport.result.getImported(), itemImport.result.getFailed());
+
+        return itemImport.result;
+    }
+
+    // NDJSON: одна вещь на строку, ошибка разбора строки не мешает читать следующие
+    private void readLines(BufferedReader reader, Import itemImport) throws IOException {
+        long lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                itemImport.add(lineNumber, itemReader.readValue(line));
+            } catch (JsonProcessingException e) {
+                itemImport.result.setTotal(itemImport.result.getTotal() + 1);
+                itemImport.result.addError(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    // JSON-массив: после ошибки в значении поля чтение продолжается со следующего элемента,
+    // после синтаксической ошибки продолжить разбор нельзя
+    private void readArray(BufferedReader reader, Import itemImport) throws IOException {
+        long position = 0;
+        try (MappingIterator<ItemDto> items = itemReader.readValues(reader)) {
+            while (true) {
+                try {
+                    if (!items.hasNextValue()) {
+                        return;
+                    }
+                    position++;
+                    itemImport.add(position, items.nextValue());
+                } catch (JsonParseException e) {
+                    itemImport.result.setTotal(itemImport.result.getTotal() + 1);
+                    itemImport.result.addError(position, "Некорректный JSON, разбор прерван: " + e.getOriginalMessage());
+                    return;
+                } catch (JsonProcessingException e) {
+                    itemImport.result.setTotal(itemImport.result.getTotal() + 1);
+                    itemImport.result.addError(position, "Некорректный JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean startsWithArray(BufferedReader reader) throws IOException {
+        while (true) {
+            reader.mark(1);
+            int symbol = reader.read();
+            if (symbol == -1) {
+                return false;
+            }
+            if (!Character.isWhitespace(symbol)) {
+                reader.reset();
+                return symbol == '[';
+            }
+        }
+    }
+
+    // состояние одной загрузки: текущая пачка, найденные запросы вещей и отчёт
+    private class Import {
+        private final Long userId;
+        private final ItemImportResult result = new ItemImportResult();
+        private final Map<Long, Optional<ItemRequest>> requests = new HashMap<>();
+        private final List<Item> batch = new ArrayList<>();
+        private final List<Long> batchLines = new ArrayList<>();
+
+        private Import(Long userId) {
+            this.userId = userId;
+        }
+
+        private void add(long line, ItemDto itemDto) {
+            result.setTotal(result.getTotal() + 1);
+            if (itemDto == null) {
+                result.addError(line, "Пустая запись");
+                return;
+            }
+            Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+            if (!violations.isEmpty()) {
+                result.addError(line, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+
+            Item item = ItemMapper.mapToItem(itemDto, userId);
+            item.setId(null);
+            if (itemDto.getRequestId() != null) {
+                Optional<ItemRequest> request = requests.computeIfAbsent(itemDto.getRequestId(), this::findRequest);
+                if (request.isEmpty()) {
+                    result.addError(line, "Запрос вещи с ИД " + itemDto.getRequestId() + " не найден.");
+                    return;
+                }
+                item.setRequest(request.get());
+            }
+            batch.add(item);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private Optional<ItemRequest> findRequest(Long requestId) {
+            try {
+                return Optional.of(itemRequestService.getItemRequestOrNotFound(requestId));
+            } catch (NotFoundException e) {
+                return Optional.empty();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(batch));
+                batch.forEach(itemSearchIndex::put);
+                result.setImported(result.getImported() + batch.size());
+            } catch (RuntimeException e) {
+                log.warn("ItemImportService - пачка из {} вещей не сохранена: {}", batch.size(), e.getMessage());
+                batchLines.forEach(line -> result.addError(line, "Ошибка сохранения пачки: " + e.getMessage()));
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс в памяти для поиска доступных вещей по подстроке в названии или описании.
+ * Текст разбивается на триграммы, кандидаты отбираются пересечением списков вещей по триграммам запроса
+ * и затем проверяются на точное вхождение подстроки.
+ * Индекс обновляется после записи в базу, поэтому при параллельной записи может ненадолго расходиться с ней:
+ * доля поисков shareit.items.search.index.verify-rate сверяется с базой, расхождения считаются метрикой
+ * shareit.items.search.index.mismatches.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final Counter mismatches;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String[]> texts = new HashMap<>(); // ИД вещи -> название и описание в нижнем регистре
+    private final Map<String, Set<Long>> grams = new HashMap<>(); // триграмма -> ИД вещей
+
+    @Value("${shareit.items.search.index.enabled:true}")
+    private boolean enabled; // false - поиск выполняется запросом к базе
+
+    @Value("${shareit.items.search.index.verify-rate:0}")
+    private double verifyRate; // доля поисков, сверяемых с запросом к базе, 0 - без сверки, 1 - каждый поиск
+
+    public ItemSearchIndex(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.mismatches = Counter.builder("shareit.items.search.index.mismatches")
+                .description("Поиски по индексу, результат которых разошёлся с базой")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // попадает ли очередной поиск в выборку для сверки с базой
+    public boolean shouldVerify() {
+        return verifyRate > 0 && ThreadLocalRandom.current().nextDouble() < verifyRate;
+    }
+
+    // построение индекса по всем доступным вещам из базы
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            texts.clear();
+            grams.clear();
+            List<Item> items;
+            Long lastId = 0L;
+            do {
+                items = itemRepository.findAllByAvailableIsTrueAndIdGreaterThanOrderById(
+                        lastId, PageRequest.ofSize(LOAD_PAGE_SIZE));
+                items.forEach(this::add);
+                if (!items.isEmpty()) {
+                    lastId = items.get(items.size() - 1).getId();
+                }
+            } while (items.size() == LOAD_PAGE_SIZE);
+            log.info("ItemSearchIndex - индекс построен, проиндексировано вещей: {}", texts.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // добавление или обновление вещи в индексе, недоступные вещи из индекса удаляются
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // удаление вещи из индекса
+    public void remove(Long itemId) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ИД всех доступных вещей, в названии или описании которых есть текст запроса, по возрастанию
+    public List<Long> search(String text) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Long> itemIds = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long itemId : findCandidates(query)) {
+                String[] itemTexts = texts.get(itemId);
+                if (itemTexts[0].contains(query) || itemTexts[1].contains(query)) {
+                    itemIds.add(itemId);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.sort(itemIds);
+
+        return itemIds;
+    }
+
+    // сверка результата поиска по индексу с результатом запроса к базе
+    public boolean isConsistent(String text) {
+        Set<Long> indexIds = new HashSet<>(search(text));
+        Set<Long> databaseIds = new HashSet<>(itemRepository.searchIdsByText(text));
+
+        if (!indexIds.equals(databaseIds)) {
+            mismatches.increment();
+            log.warn("ItemSearchIndex - расхождение с базой по запросу: [{}], в индексе: {}, в базе: {}",
+                    text, indexIds.size(), databaseIds.size());
+
+            return false;
+        }
+
+        return true;
+    }
+
+    // вещи, содержащие все триграммы запроса, для коротких запросов - все вещи индекса
+    private Collection<Long> findCandidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return texts.keySet();
+        }
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : splitToGrams(query)) {
+            Set<Long> itemIds = grams.get(gram);
+            if (itemIds == null) {
+                return Collections.emptySet();
+            }
+            postings.add(itemIds);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(postings.get(i));
+        }
+
+        return candidates;
+    }
+
+    private void add(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        String[] itemTexts = {toLowerCase(item.getName()), toLowerCase(item.getDescription())};
+        texts.put(item.getId(), itemTexts);
+        for (String itemText : itemTexts) {
+            for (String gram : splitToGrams(itemText)) {
+                grams.computeIfAbsent(gram, key -> new HashSet<>()).add(item.getId());
+            }
+        }
+    }
+
+    private void delete(Long itemId) {
+        String[] itemTexts = texts.remove(itemId);
+        if (itemTexts == null) {
+            return;
+        }
+        for (String itemText : itemTexts) {
+            for (String gram : splitToGrams(itemText)) {
+                Set<Long> itemIds = grams.get(gram);
+                if (itemIds != null) {
+                    itemIds.remove(itemId);
+                    if (itemIds.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Set<String> splitToGrams(String text) {
+        Set<String> textGrams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            textGrams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return textGrams;
+    }
+
+    private static String toLowerCase(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -16,6 +16,9 @@ public interface ItemService {
     // получить вещь по ИД и пользователю
     ItemDto getItemByItemIdAndUserId(Long itemId, Long userId);
 
+    // ETag вещи по версиям вещи, комментариев и, для владельца, бронирований, с теми же проверками, что и получение
+    String getItemETag(Long itemId, Long userId);
+
     // обновление вещи по ИД
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
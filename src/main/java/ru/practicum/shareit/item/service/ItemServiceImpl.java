@@ -1,7 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.SingleFlight;
+import ru.practicum.shareit.common.sql.DatabasePlatform;
+import ru.practicum.shareit.common.logging.LogPayload;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.BookingRepository;
@@ -13,6 +18,7 @@ import ru.practicum.shareit.item.model.comment.CommentDto;
 import ru.practicum.shareit.item.model.comment.CommentMapper;
 import ru.practicum.shareit.item.model.item.Item;
 import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.item.model.item.ItemVersion;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.item.ItemMapper;
@@ -23,27 +29,36 @@ import ru.practicum.shareit.exception.NotFoundException;
 
 import java.util.*;
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRequestService itemRequestService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemViewCache itemViewCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRepository itemRepository;
     private final UserService userService;
+    private final SingleFlight<Long, Item> itemLoads;
+    private final DatabasePlatform databasePlatform;
+
+    @Value("${shareit.items.search.full-text.enabled:false}")
+    private boolean fullTextSearch; // поиск с упорядочиванием по релевантности, только на PostgreSQL, важнее индекса
 
     // создать вещь
     @Override
     public ItemDto addItem(Long userId, ItemDto itemDto) {
-        userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
         Item item = ItemMapper.mapToItem(itemDto, userId);
 
         if (itemDto.getRequestId() != null) {
             item.setRequest(itemRequestService.getItemRequestOrNotFound(itemDto.getRequestId()));
         }
         itemRepository.save(item);
+        itemSearchIndex.put(item);
         log.info("ItemService - в базу добавлена вещь: {} ", item);
 
         return ItemMapper.mapToItemDto(item);
@@ -52,17 +67,14 @@ public class ItemServiceImpl implements ItemService {
     // получить все вещи пользователя по ИД пользователя
     @Override
     public Collection<ItemDto> getItems(Long userId, int from, int size) {
-        userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
         PageRequest pageRequest = PageRequest.of(from / size, size);
 
         Collection<ItemDto> itemsDtos = ItemMapper.mapToItemDto(itemRepository.findAllByOwner(userId, pageRequest));
 
-        for (ItemDto itemDto : itemsDtos) {
-            addNextBooking(itemDto);
-            addLastBooking(itemDto);
-            addComments(itemDto);
-        }
-        log.info("ItemService - для пользователя с ИД: {} предоставлен список вещей: {} ", userId, itemsDtos);
+        addBookingsAndComments(itemsDtos);
+        log.info("ItemService - для пользователя с ИД: {} предоставлен список вещей: {} ",
+                userId, LogPayload.ids(itemsDtos, ItemDto::getId));
 
         return itemsDtos;
     }
@@ -70,25 +82,54 @@ public class ItemServiceImpl implements ItemService {
     // получить вещь по ИД вещи и ИД пользователя
     @Override
     public ItemDto getItemByItemIdAndUserId(Long itemId, Long userId) {
-        userService.getUserOrNotFound(userId);
-        Item getItem = getItemOrNotFound(itemId);
-        ItemDto itemDto = ItemMapper.mapToItemDto(getItem);
+        userService.checkUserExists(userId);
+        long stamp = itemViewCache.stamp(itemId);
+        ItemViewCache.ItemView itemView = itemViewCache.getView(itemId).orElse(null);
+        if (itemView == null) {
+            Item getItem = getItemOrNotFound(itemId);
+            ItemDto baseDto = ItemMapper.mapToItemDto(getItem);
+            addComments(baseDto);
+            itemView = new ItemViewCache.ItemView(getItem.getOwner(), baseDto);
+            itemViewCache.putView(itemView, stamp);
+        }
+        ItemDto itemDto = itemView.toItemDto();
 
         // если запрос поступил от владельца вещи, то добавляем информацию о последней и ближайшей аренде
-        if (getItem.getOwner().equals(userId)) {
-            addNextBooking(itemDto);
-            addLastBooking(itemDto);
+        if (itemView.getOwnerId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            ItemViewCache.OwnerBookings ownerBookings = itemViewCache.getOwnerBookings(itemId, now)
+                    .orElseGet(() -> loadOwnerBookings(itemId, now, stamp));
+            itemDto.setLastBooking(ownerBookings.getLastBooking());
+            itemDto.setNextBooking(ownerBookings.getNextBooking());
         }
-        addComments(itemDto);
-        log.info("ItemService - для пользователя с ИД: {}, найдена вещь: {}", itemId, itemDto);
+        log.info("ItemService - для пользователя с ИД: {}, найдена вещь: {}", userId, LogPayload.capped(itemDto));
 
         return itemDto;
     }
 
+    // ETag вещи: владелец видит последнюю и ближайшую аренду, поэтому его ETag включает версии бронирований
+    @Override
+    public String getItemETag(Long itemId, Long userId) {
+        userService.checkUserExists(userId);
+        ItemVersion itemVersion = itemRepository
+                .findVersionById(itemId, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Вещь с ИД " + itemId + " не найден."));
+
+        if (itemVersion.getOwnerId().equals(userId)) {
+            return ETags.ofVersions("item-owner", itemId, itemVersion.getVersion(),
+                    itemVersion.getComments(), itemVersion.getLastCommentId(), itemVersion.getAuthorsVersion(),
+                    itemVersion.getBookings(), itemVersion.getLastBookingId(), itemVersion.getBookingsVersion(),
+                    itemVersion.getFinishedBookings());
+        }
+
+        return ETags.ofVersions("item", itemId, itemVersion.getVersion(),
+                itemVersion.getComments(), itemVersion.getLastCommentId(), itemVersion.getAuthorsVersion());
+    }
+
     // обновление вещи по ИД
     @Override
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        Item updatedItem = getItemOrNotFound(itemId);
+        Item updatedItem = findItemOrNotFound(itemId);
 
         if (!updatedItem.getOwner().equals(userId)) {
             throw new NotFoundException("Вещь с ИД: " + itemId + " у пользователя с ИД: " + userId + " не найден.");
@@ -109,6 +150,8 @@ public class ItemServiceImpl implements ItemService {
         }
 
         updatedItem = itemRepository.save(updatedItem);
+        itemSearchIndex.put(updatedItem);
+        itemViewCache.evict(itemId);
         log.info("ItemService - в базе обновлена вещь: {}", updatedItem);
 
         return ItemMapper.mapToItemDto(updatedItem);
@@ -120,6 +163,8 @@ public class ItemServiceImpl implements ItemService {
         getItemOrNotFound(itemId);
         log.info("ItemController - удаление пользователя по ИД: {}", itemId);
         itemRepository.deleteById(itemId);
+        itemSearchIndex.remove(itemId);
+        itemViewCache.evict(itemId);
     }
 
     // поиск вещей через совпадения текста запроса с наименованием или описанием вещи
@@ -133,8 +178,15 @@ public class ItemServiceImpl implements ItemService {
 
             return itemsDtoList;
         }
-        itemsDtoList = ItemMapper.mapToItemDto(itemRepository.searchByText(text, pageRequest));
-        log.info("ItemService - по запросу: {} предоставлен список вещей: {} ", text, itemsDtoList);
+        if (fullTextSearch && databasePlatform.isPostgresql()) {
+            itemsDtoList = ItemMapper.mapToItemDto(itemRepository.searchByTextFullText(text, pageRequest));
+        } else if (itemSearchIndex.isEnabled()) {
+            itemsDtoList = ItemMapper.mapToItemDto(searchItemsByIndex(text, pageRequest));
+        } else {
+            itemsDtoList = ItemMapper.mapToItemDto(itemRepository.searchByText(text, pageRequest));
+        }
+        log.info("ItemService - по запросу: {} предоставлен список вещей: {} ",
+                LogPayload.capped(text), LogPayload.ids(itemsDtoList, ItemDto::getId));
 
         return itemsDtoList;
     }
@@ -144,57 +196,104 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
         Item item = getItemOrNotFound(itemId);
         User user = userService.getUserOrNotFound(userId);
-        Collection<Booking> bookings = bookingRepository.findByBooker_Id(userId);
 
-        if (bookings.stream()
-                .anyMatch(booking -> booking.getItem().getId().equals(item.getId())
-                        && booking.getStatus().equals(Status.APPROVED)
-                        && booking.getEnd().isBefore(LocalDateTime.now()))) {
+        if (bookingRepository.existsFinishedBooking(userId, itemId, Status.APPROVED, LocalDateTime.now())) {
             commentDto.setAuthorName(user.getName());
             commentDto.setCreated(LocalDateTime.now());
         } else {
             throw new ValidatorExceptions("Вещь не была в аренде или аренда ещё не завершена");
         }
         Comment comment = commentRepository.save(CommentMapper.mapToComment(commentDto, item, user));
+        itemViewCache.evict(itemId);
         log.info("ItemService - в базу добавлен комментарий: {} ", comment);
 
         return CommentMapper.mapToCommentDto(comment);
     }
 
-    // получение вещи, если не найдена - ошибка 404
+    // получение вещи, если не найдена - ошибка 404, одновременные загрузки одной вещи объединяются
     @Override
     public Item getItemOrNotFound(Long itemId) {
+        return itemLoads.load(itemId, () -> findItemOrNotFound(itemId));
+    }
+
+    // поиск по индексу в памяти, из базы загружается только запрошенная страница,
+    // при расхождении индекса с базой в проверяемой выборке ответ даёт запрос к базе
+    private List<Item> searchItemsByIndex(String text, PageRequest pageRequest) {
+        if (itemSearchIndex.shouldVerify() && !itemSearchIndex.isConsistent(text)) {
+            return itemRepository.searchByText(text, pageRequest);
+        }
+        List<Long> itemIds = itemSearchIndex.search(text);
+        int fromIndex = (int) Math.min(pageRequest.getOffset(), itemIds.size());
+        int toIndex = Math.min(fromIndex + pageRequest.getPageSize(), itemIds.size());
+        List<Long> pageIds = itemIds.subList(fromIndex, toIndex);
+
+        Map<Long, Item> items = new HashMap<>();
+        itemRepository.findAllById(pageIds).forEach(item -> items.put(item.getId(), item));
+
+        return pageIds.stream()
+                .map(items::get)
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toList());
+    }
+
+    // последняя и ближайшая аренда вещи для владельца, кэшируются до окончания ближайшей аренды
+    private ItemViewCache.OwnerBookings loadOwnerBookings(Long itemId, LocalDateTime now, long stamp) {
+        List<Booking> nextBookings = bookingRepository.findNextBookingsByItemIds(List.of(itemId), now, Status.APPROVED);
+        List<Booking> lastBookings = bookingRepository.findLastBookingsByItemIds(List.of(itemId), now, Status.APPROVED);
+        ItemViewCache.OwnerBookings ownerBookings = new ItemViewCache.OwnerBookings(
+                mapToItemBookingByItemId(lastBookings).get(itemId),
+                mapToItemBookingByItemId(nextBookings).get(itemId),
+                nextBookings.isEmpty() ? null : nextBookings.get(0).getEnd());
+        itemViewCache.putOwnerBookings(itemId, ownerBookings, stamp);
+
+        return ownerBookings;
+    }
+
+    // загрузка вещи из базы без объединения с другими запросами, для изменения вещи
+    private Item findItemOrNotFound(Long itemId) {
         return itemRepository
                 .findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с ИД " + itemId + " не найден."));
     }
 
-    // добавление ближайшей аренды вещи
-    private void addNextBooking(ItemDto itemDto) {
-        Optional<Booking> booking = bookingRepository.
-                findTop1BookingByItem_IdAndEndIsAfterAndStatusIsOrderByEndAsc
-                        (itemDto.getId(), LocalDateTime.now(), Status.APPROVED);
-        if (booking.isPresent()) {
-            itemDto.setNextBooking(new ItemDto.ItemBooking(booking.get().getId(), booking.get().getBooker().getId()));
-        } else {
-            itemDto.setNextBooking(null);
-        }
+    // добавление комментариев для вещи
+    private void addComments(ItemDto itemDto) {
+        itemDto.setComments(commentRepository.findAllByItem_Id(itemDto.getId()));
     }
 
-    // добавление последней аренды вещи
-    private void addLastBooking(ItemDto itemDto) {
-        Optional<Booking> booking = bookingRepository.
-                findTop1BookingByItem_IdAndEndIsBeforeAndStatusIsOrderByEndDesc
-                        (itemDto.getId(), LocalDateTime.now(), Status.APPROVED);
-        if (booking.isPresent()) {
-            itemDto.setLastBooking(new ItemDto.ItemBooking(booking.get().getId(), booking.get().getBooker().getId()));
-        } else {
-            itemDto.setLastBooking(null);
+    // добавление ближайшей и последней аренды, а также комментариев сразу для списка вещей,
+    // три запроса к базе на всю страницу вместо трёх запросов на каждую вещь
+    private void addBookingsAndComments(Collection<ItemDto> itemsDtos) {
+        if (itemsDtos.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = itemsDtos.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, ItemDto.ItemBooking> nextBookings = mapToItemBookingByItemId(
+                bookingRepository.findNextBookingsByItemIds(itemIds, now, Status.APPROVED));
+        Map<Long, ItemDto.ItemBooking> lastBookings = mapToItemBookingByItemId(
+                bookingRepository.findLastBookingsByItemIds(itemIds, now, Status.APPROVED));
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        for (ItemDto itemDto : itemsDtos) {
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setComments(CommentMapper.mapToItemDto(
+                    comments.getOrDefault(itemDto.getId(), Collections.emptyList())));
         }
     }
 
-    // добавление комментариев для вещи
-    private void addComments(ItemDto itemDto) {
-        itemDto.setComments(CommentMapper.mapToItemDto(commentRepository.findAllByItem_Id(itemDto.getId())));
+    // группировка аренд по ИД вещи, при совпадении дат окончания остаётся аренда с меньшим ИД
+    private Map<Long, ItemDto.ItemBooking> mapToItemBookingByItemId(Collection<Booking> bookings) {
+        Map<Long, ItemDto.ItemBooking> itemBookings = new HashMap<>();
+        bookings.stream()
+                .sorted(Comparator.comparing(Booking::getId))
+                .forEach(booking -> itemBookings.putIfAbsent(booking.getItem().getId(),
+                        new ItemDto.ItemBooking(booking.getId(), booking.getBooker().getId())));
+        return itemBookings;
     }
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш карточек вещей для GET /items/{itemId}, ограничен по размеру и времени жизни записи.
+ * Общая для всех пользователей часть (вещь с комментариями) и данные только для владельца (последняя
+ * и ближайшая аренда) хранятся отдельно: бронирования меняются чаще и добавляются к ответу только владельцу.
+ * Карточки содержат имена авторов комментариев, поэтому смена имени пользователя сбрасывает все карточки.
+ * Загруженное значение кладётся в кэш, только если запись вещи не сбрасывали за время загрузки,
+ * maximum-size=0 отключает кэш. Попадания и промахи - метрики cache.gets (cache=item-views, item-owner-bookings).
+ */
+@Component
+public class ItemViewCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache<Long, ItemView> views;
+    private final Cache<Long, OwnerBookings> ownerBookings;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES); // счётчики сбросов по полосам ИД
+    private final boolean enabled;
+
+    public ItemViewCache(@Value("${shareit.items.view-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.items.view-cache.expire-after-write:5m}") Duration expireAfterWrite,
+                         ObjectProvider<MeterRegistry> meterRegistry) {
+        this.enabled = maximumSize > 0;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.ownerBookings = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, views, "item-views");
+            CaffeineCacheMetrics.monitor(registry, ownerBookings, "item-owner-bookings");
+        });
+    }
+
+    // отметка перед загрузкой из базы, передаётся в put
+    public long stamp(Long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    public Optional<ItemView> getView(Long itemId) {
+        return enabled ? Optional.ofNullable(views.getIfPresent(itemId)) : Optional.empty();
+    }
+
+    public void putView(ItemView view, long stamp) {
+        if (enabled && stamp(view.getItem().getId()) == stamp) {
+            views.put(view.getItem().getId(), view);
+        }
+    }
+
+    // бронирования владельца, если ближайшая аренда на момент now ещё не завершилась
+    public Optional<OwnerBookings> getOwnerBookings(Long itemId, LocalDateTime now) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        OwnerBookings bookings = ownerBookings.getIfPresent(itemId);
+        if (bookings != null && bookings.getValidUntil() != null && !now.isBefore(bookings.getValidUntil())) {
+            ownerBookings.invalidate(itemId);
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(bookings);
+    }
+
+    public void putOwnerBookings(Long itemId, OwnerBookings bookings, long stamp) {
+        if (enabled && stamp(itemId) == stamp) {
+            ownerBookings.put(itemId, bookings);
+        }
+    }
+
+    // сброс карточки вещи целиком: изменение или удаление вещи, новый комментарий
+    public void evict(Long itemId) {
+        invalidate(itemId, true);
+        afterTransaction(() -> invalidate(itemId, true));
+    }
+
+    // сброс только бронирований владельца: новая бронь или изменение статуса брони
+    public void evictBookings(Long itemId) {
+        invalidate(itemId, false);
+        afterTransaction(() -> invalidate(itemId, false));
+    }
+
+    // сброс карточек всех вещей: изменилось имя пользователя, которое может быть в комментариях к любой вещи
+    public void evictViews() {
+        invalidateViews();
+        afterTransaction(this::invalidateViews);
+    }
+
+    private void invalidateViews() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        views.invalidateAll();
+    }
+
+    private void invalidate(Long itemId, boolean withView) {
+        generations.incrementAndGet(stripe(itemId));
+        if (withView) {
+            views.invalidate(itemId);
+        }
+        ownerBookings.invalidate(itemId);
+    }
+
+    // внутри транзакции запись сбрасывается ещё раз после её завершения: до фиксации параллельное чтение
+    // может успеть положить в кэш старые данные
+    private static void afterTransaction(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static int stripe(Long itemId) {
+        return (int) Math.floorMod(itemId, (long) STRIPES);
+    }
+
+    /**
+     * Общая часть карточки: ИД владельца и вещь с комментариями, без бронирований
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class ItemView {
+        private final Long ownerId;
+        private final ItemDto item;
+
+        // копия для ответа, кэшированное значение не изменяется
+        public ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .requestId(item.getRequestId())
+                    .comments(item.getComments() == null ? null : List.copyOf(item.getComments()))
+                    .build();
+        }
+    }
+
+    /**
+     * Последняя и ближайшая аренда для владельца, действительны до окончания ближайшей аренды
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class OwnerBookings {
+        private final ItemDto.ItemBooking lastBooking;
+        private final ItemDto.ItemBooking nextBooking;
+        private final LocalDateTime validUntil; // null - ближайшей аренды нет
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.cfg.AvailableSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.booking.model.State;
+import org.springframework.context.annotation.Bean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.exception.ValidatorExceptions;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Метрики приложения поверх Spring Boot Actuator.
+ * Время обработки запросов (http.server.requests) и вызовов репозиториев (spring.data.repository.invocations)
+ * собирает сам Spring Boot, здесь к ним добавляется тег state списков бронирований
+ * и подсчёт SQL-запросов на HTTP-запрос.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+    private static final String NO_STATE = "none";
+    private static final String UNKNOWN_STATE = "UNKNOWN";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry; // в тестовых срезах web-слоя реестра метрик нет
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        meterRegistry.ifAvailable(meters -> registry.addInterceptor(new SqlStatementMetricsInterceptor(meters)));
+    }
+
+    // подсчёт SQL асинхронной части запросов, выгрузки отдаются через StreamingResponseBody
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        meterRegistry.ifAvailable(meters ->
+                configurer.registerCallableInterceptors(new SqlStatementMetricsInterceptor(meters)));
+    }
+
+    // подсчёт SQL, если другой StatementInspector не задан в настройках
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return hibernateProperties -> hibernateProperties
+                .putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public WebMvcTagsContributor stateTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Throwable exception) {
+                return Tags.of("state", getStateTag(request));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.empty();
+            }
+        };
+    }
+
+    // значение тега state: известные значения State, иначе UNKNOWN, чтобы не плодить теги на мусорных запросах
+    static String getStateTag(HttpServletRequest request) {
+        String state = request.getParameter("state");
+        if (state == null) {
+            return NO_STATE;
+        }
+        try {
+            return State.getStateOrValidatorExceptions(state).name();
+        } catch (ValidatorExceptions e) {
+            return UNKNOWN_STATE;
+        }
+    }
+}
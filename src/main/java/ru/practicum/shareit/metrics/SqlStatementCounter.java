@@ -0,0 +1,49 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Считает SQL, который Hibernate отправляет в базу в текущем потоке, между вызовами start() и stop().
+ * Счётчик, полученный из start(), можно подключить к другому потоку через attach() - так считаются запросы
+ * асинхронной части HTTP-запроса (StreamingResponseBody).
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> counter = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = counter.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    // начало подсчёта в текущем потоке, возвращает счётчик для продолжения подсчёта в других потоках
+    public static AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        counter.set(count);
+
+        return count;
+    }
+
+    // продолжение подсчёта в текущем потоке общим счётчиком
+    public static void attach(AtomicInteger count) {
+        counter.set(count);
+    }
+
+    // отключение текущего потока от счётчика без окончания подсчёта
+    public static void detach() {
+        counter.remove();
+    }
+
+    // окончание подсчёта, количество выполненных запросов
+    public static int stop() {
+        AtomicInteger count = counter.get();
+        counter.remove();
+
+        return count == null ? 0 : count.get();
+    }
+}
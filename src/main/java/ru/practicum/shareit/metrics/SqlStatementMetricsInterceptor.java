@@ -0,0 +1,75 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import javax.servlet.DispatcherType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.context.request.RequestAttributes;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Количество SQL-запросов на один HTTP-запрос - метрика shareit.sql.statements с тегами uri, method и state.
+ * Счётчик хранится в атрибуте запроса: асинхронная задача (StreamingResponseBody) подключается к нему
+ * на время выполнения, значение записывается после завершающего ASYNC-диспатча.
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+    private static final String COUNT_ATTRIBUTE = SqlStatementMetricsInterceptor.class.getName() + ".count";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        if (request.getDispatcherType() == DispatcherType.ASYNC && count != null) {
+            SqlStatementCounter.attach(count);
+        } else {
+            request.setAttribute(COUNT_ATTRIBUTE, SqlStatementCounter.start());
+        }
+
+        return true;
+    }
+
+    // поток контейнера освобождается, запросы асинхронной задачи считаются в её потоке
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        SqlStatementCounter.detach();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        int statements = SqlStatementCounter.stop();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        DistributionSummary.builder("shareit.sql.statements")
+                .description("Количество SQL-запросов на HTTP-запрос")
+                .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                .tag("method", request.getMethod())
+                .tag("state", MetricsConfig.getStateTag(request))
+                .register(meterRegistry)
+                .record(statements);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (count != null) {
+            SqlStatementCounter.attach(count);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        SqlStatementCounter.detach();
+    }
+}
@@ -6,8 +6,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.common.logging.LogPayload;
 import ru.practicum.shareit.request.model.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
@@ -27,7 +29,8 @@ public class ItemRequestController {
     @PostMapping
     public ItemRequestDto addItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @Valid @RequestBody ItemRequestDto itemRequestDto) {
-        log.info("ItemRequestController - создание запроса вещи: {}, от пользователя с ИД: {}", itemRequestDto, userId);
+        log.info("ItemRequestController - создание запроса вещи: {}, от пользователя с ИД: {}",
+                LogPayload.capped(itemRequestDto), userId);
 
         return itemRequestService.addItemRequest(userId, itemRequestDto);
     }
@@ -52,10 +55,15 @@ public class ItemRequestController {
     }
 
     // получить данные об одном конкретном запросе
+    // ETag по версиям автора и предложенных вещей, при совпадении с If-None-Match - 304 без загрузки запроса
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long requestId) {
+                                     @PathVariable Long requestId,
+                                     WebRequest request) {
         log.info("ItemRequestController - получение данных о запросе с ИД: {}", requestId);
+        if (request.checkNotModified(itemRequestService.getItemRequestETag(userId, requestId))) {
+            return null;
+        }
 
         return itemRequestService.getItemRequestByUser(userId, requestId);
     }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Objects;
@@ -12,6 +14,8 @@ import java.time.LocalDateTime;
  * Модель запроса вещи
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "requests")
 @Getter
 @Setter
 @Builder
@@ -21,19 +25,27 @@ import java.time.LocalDateTime;
 @Table(name = "requests")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
     @JoinColumn(name = "requestor_id")
     private User requestor;
 
     @Column(name = "create_date")
     private LocalDateTime created;
 
+    // в toString только ИД связанной сущности, без обхода графа и загрузки ленивых связей
+    @ToString.Include(name = "requestorId")
+    private Long requestorIdForLog() {
+        return requestor == null ? null : requestor.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.Getter;
+import lombok.ToString;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Версии автора запроса и вещей, предложенных в ответ на запрос, для ETag без загрузки сущностей.
+ * Сам запрос не изменяется. Суммы и максимумы по пустому списку вещей - null.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ItemRequestVersion {
+    private final Long id; // ид запроса
+    private final Long requestorVersion; // версия автора запроса
+    private final Long items; // количество предложенных вещей
+    private final Long lastItemId; // ид последней предложенной вещи
+    private final Long itemsVersion; // сумма версий предложенных вещей
+}
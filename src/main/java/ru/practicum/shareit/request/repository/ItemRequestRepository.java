@@ -2,13 +2,44 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Автор запроса отдаётся в ответе целиком, поэтому запросы для вывода загружают его сразу (JOIN FETCH),
+ * findById - без автора, для привязки вещи к запросу, findVersionById - только версии для ETag запроса
+ */
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query(value = "" +
+            "SELECT r FROM ItemRequest r " +
+            "JOIN FETCH r.requestor " +
+            "WHERE r.id = ?1")
+    Optional<ItemRequest> findWithRequestorById(Long itemRequestId);
 
+    @Query(value = "" +
+            "SELECT new ru.practicum.shareit.request.model.ItemRequestVersion(r.id, u.version, " +
+            "(SELECT COUNT(i) FROM Item i WHERE i.request.id = r.id), " +
+            "(SELECT MAX(i.id) FROM Item i WHERE i.request.id = r.id), " +
+            "(SELECT SUM(i.version) FROM Item i WHERE i.request.id = r.id)) " +
+            "FROM ItemRequest r JOIN r.requestor u " +
+            "WHERE r.id = ?1")
+    Optional<ItemRequestVersion> findVersionById(Long itemRequestId);
+
+    @Query(value = "" +
+            "SELECT r FROM ItemRequest r " +
+            "JOIN FETCH r.requestor " +
+            "WHERE r.requestor.id = ?1 " +
+            "ORDER BY r.created DESC")
     List<ItemRequest> findAllByRequestor_IdOrderByCreatedDesc(Long userId);
 
+    @Query(value = "" +
+            "SELECT r FROM ItemRequest r " +
+            "JOIN FETCH r.requestor " +
+            "WHERE r.requestor.id <> ?1 " +
+            "ORDER BY r.created DESC")
     List<ItemRequest> findAllByRequestor_IdIsNotOrderByCreatedDesc(Long userId, PageRequest pageRequest);
 }
\ No newline at end of file
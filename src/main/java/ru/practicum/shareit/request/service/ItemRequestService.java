@@ -18,6 +18,9 @@ public interface ItemRequestService {
     // получить данные об одном конкретном запросе
     ItemRequestDto getItemRequestByUser(Long userId, Long requestId);
 
+    // ETag запроса по версиям автора и предложенных вещей, с теми же проверками, что и получение запроса
+    String getItemRequestETag(Long userId, Long requestId);
+
     // получение запроса вещи, если не найден - ошибка 404
     ItemRequest getItemRequestOrNotFound(Long ItemRequestId);
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.logging.LogPayload;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.request.model.*;
 import ru.practicum.shareit.user.model.User;
@@ -12,8 +14,11 @@ import ru.practicum.shareit.user.service.UserServiceImpl;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 
+import java.util.Map;
 import java.util.List;
+import java.util.Collections;
 import java.time.LocalDateTime;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -39,12 +44,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     // получить список своих запросов вместе с данными об ответах на них
     @Override
     public List<ItemRequestDto> getItemRequestsByUser(Long userId) {
-        userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(userId);
 
         List<ItemRequestDto> itemRequestsDto = ItemRequestMapper.mapToItemRequestDto(itemRequests);
-        itemRequestsDto.forEach(this::addResponseToRequest);
-        log.info("ItemRequestService - для пользователя с ИД: {}, информация о его запросах: {}", userId, itemRequestsDto);
+        addResponsesToRequests(itemRequestsDto);
+        log.info("ItemRequestService - для пользователя с ИД: {}, информация о его запросах: {}",
+                userId, LogPayload.ids(itemRequestsDto, ItemRequestDto::getId));
 
         return itemRequestsDto;
     }
@@ -52,15 +58,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     // получить список запросов, созданных другими пользователями, результат должен возвращаться постранично
     @Override
     public List<ItemRequestDto> getRequestsOtherUsers(Long userId, int from, int size) {
-        userService.getUserOrNotFound(userId);
+        userService.checkUserExists(userId);
         PageRequest pageRequest = PageRequest.of(from / size, size);
 
         List<ItemRequest> itemRequests = itemRequestRepository.
                 findAllByRequestor_IdIsNotOrderByCreatedDesc(userId, pageRequest);
 
         List<ItemRequestDto> itemRequestsDto = ItemRequestMapper.mapToItemRequestDto(itemRequests);
-        itemRequestsDto.forEach(this::addResponseToRequest);
-        log.info("ItemRequestService - предоставлен список запросов, созданных другими пользователями: {}", itemRequestsDto);
+        addResponsesToRequests(itemRequestsDto);
+        log.info("ItemRequestService - предоставлен список запросов, созданных другими пользователями: {}",
+                LogPayload.ids(itemRequestsDto, ItemRequestDto::getId));
 
         return itemRequestsDto;
     }
@@ -68,16 +75,31 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     // получить данные об одном конкретном запросе
     @Override
     public ItemRequestDto getItemRequestByUser(Long userId, Long requestId) {
-        userService.getUserOrNotFound(userId);
-        ItemRequest itemRequest = getItemRequestOrNotFound(requestId);
+        userService.checkUserExists(userId);
+        ItemRequest itemRequest = itemRequestRepository
+                .findWithRequestorById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос вещи с ИД " + requestId + " не найден."));
 
         ItemRequestDto itemRequestDto = ItemRequestMapper.mapToItemRequestDto(itemRequest);
         addResponseToRequest(itemRequestDto);
-        log.info("ItemRequestService - по ИД запроса: {}, предоставлен запрос: {}", userId, itemRequestDto);
+        log.info("ItemRequestService - по ИД запроса: {}, предоставлен запрос: {}",
+                requestId, LogPayload.capped(itemRequestDto));
 
         return itemRequestDto;
     }
 
+    // ETag запроса вещи
+    @Override
+    public String getItemRequestETag(Long userId, Long requestId) {
+        userService.checkUserExists(userId);
+        ItemRequestVersion itemRequestVersion = itemRequestRepository
+                .findVersionById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос вещи с ИД " + requestId + " не найден."));
+
+        return ETags.ofVersions("request", requestId, itemRequestVersion.getRequestorVersion(),
+                itemRequestVersion.getItems(), itemRequestVersion.getLastItemId(), itemRequestVersion.getItemsVersion());
+    }
+
     // получение запроса вещи, если не найден - ошибка 404
     @Override
     public ItemRequest getItemRequestOrNotFound(Long ItemRequestId) {
@@ -91,4 +113,21 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         List<Item> items = itemRepository.findAllByRequest_Id(itemRequestDto.getId());
         itemRequestDto.setItems(ItemMapper.mapToItemDto(items));
     }
+
+    // добавление ответов сразу к списку запросов, один запрос к базе на всю страницу
+    private void addResponsesToRequests(List<ItemRequestDto> itemRequestsDto) {
+        if (itemRequestsDto.isEmpty()) {
+            return;
+        }
+        List<Long> itemRequestIds = itemRequestsDto.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findAllByRequest_IdIn(itemRequestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+
+        for (ItemRequestDto itemRequestDto : itemRequestsDto) {
+            itemRequestDto.setItems(ItemMapper.mapToItemDto(
+                    items.getOrDefault(itemRequestDto.getId(), Collections.emptyList())));
+        }
+    }
 }
\ No newline at end of file
@@ -4,16 +4,29 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.user.model.UserDto;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.user.model.UserPage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.user.service.UserService;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Collection;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Slf4j
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserService userService;
 
     // создать пользователя
@@ -24,12 +37,40 @@ public class UserController {
         return userService.addUser(userDto);
     }
 
-    // получить всех пользователей
+    // получить пользователей: без параметров - весь список, с from или size - постранично (по умолчанию 0 и 10)
+    // при переданном cursor (пустой - первая страница) вывод по курсору, курсор следующей страницы в X-Next-Cursor
     @GetMapping
-    public Collection<UserDto> getAllUsers() {
-        log.info("UserController - получение всех пользователей");
+    public ResponseEntity<Collection<UserDto>> getAllUsers(
+            @RequestParam(required = false) @PositiveOrZero() Integer from,
+            @RequestParam(required = false) @Positive() @Max(MAX_PAGE_SIZE) Integer size,
+            @RequestParam(required = false) String cursor) {
+        log.info("UserController - получение пользователей, from: {}, size: {}, cursor: {}", from, size, cursor);
+
+        if (from == null && size == null && cursor == null) {
+            return ResponseEntity.ok(userService.getUsers());
+        }
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (cursor != null) {
+            UserPage userPage = userService.getUsers(cursor, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (userPage.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, userPage.getNextCursor());
+            }
+
+            return response.body(userPage.getUsers());
+        }
+
+        return ResponseEntity.ok(userService.getUsers(from == null ? 0 : from, pageSize));
+    }
+
+    // получить всех пользователей потоком в формате NDJSON, без загрузки всего списка в память
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        log.info("UserController - выгрузка всех пользователей");
 
-        return userService.getUsers();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService::streamUsers);
     }
 
     // получить пользователя по ИД
@@ -1,7 +1,46 @@
 package ru.practicum.shareit.user;
 
+import javax.persistence.QueryHint;
 import ru.practicum.shareit.user.model.User;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+    int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Постраничный вывод по смещению, без запроса общего количества
+     */
+    @Query(value = "" +
+            "SELECT u FROM User u " +
+            "ORDER BY u.id")
+    List<User> findPage(PageRequest pageRequest);
+
+    /**
+     * Вывод по курсору, пользователи с ИД больше ?1
+     */
+    @Query(value = "" +
+            "SELECT u FROM User u " +
+            "WHERE u.id > ?1 " +
+            "ORDER BY u.id")
+    List<User> findPageAfterId(Long lastId, PageRequest pageRequest);
+
+    /**
+     * Все пользователи потоком, читаются из базы порциями по STREAM_FETCH_SIZE, поток читать в транзакции
+     */
+    @QueryHints(value = {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query(value = "" +
+            "SELECT u FROM User u " +
+            "ORDER BY u.id")
+    Stream<User> streamAll();
+}
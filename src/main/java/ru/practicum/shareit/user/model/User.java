@@ -1,6 +1,9 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -8,6 +11,8 @@ import javax.persistence.*;
  * Модель пользователя
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Getter
 @Setter
 @Builder
@@ -17,7 +22,8 @@ import javax.persistence.*;
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id; // ид пользователя
 
     @Column(name = "name")
@@ -26,6 +32,10 @@ public class User {
     @Column(name = "email", unique = true)
     private String email; // почта пользователя
 
+    @Version
+    @JsonIgnore
+    private Long version; // версия записи для ETag ответов с именем пользователя, в ответ не выводится
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Страница пользователей при выводе по курсору
+ */
+@Data
+@AllArgsConstructor
+public class UserPage {
+    private List<UserDto> users; // пользователи страницы
+    private String nextCursor; // курсор следующей страницы (ИД последнего пользователя), null - страница последняя
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш пользователей по ИД, ограничен по размеру и времени жизни записи.
+ * Записи удаляются при обновлении и удалении пользователя, загруженный пользователь кладётся в кэш, только если
+ * запись не сбрасывали за время загрузки - иначе чтение, начатое до обновления, вернуло бы в кэш старые данные.
+ * maximum-size=0 отключает кэш.
+ */
+@Component
+public class UserCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache<Long, User> users;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES); // счётчики сбросов по полосам ИД
+    private final boolean enabled;
+
+    public UserCache(@Value("${shareit.users.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.users.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = maximumSize > 0;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    // отметка перед загрузкой из базы, передаётся в put
+    public long stamp(Long userId) {
+        return generations.get(stripe(userId));
+    }
+
+    public Optional<User> get(Long userId) {
+        return enabled ? Optional.ofNullable(users.getIfPresent(userId)) : Optional.empty();
+    }
+
+    public void put(User user, long stamp) {
+        if (enabled && stamp(user.getId()) == stamp) {
+            users.put(user.getId(), user);
+        }
+    }
+
+    public void evict(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        users.invalidate(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) STRIPES);
+    }
+}
@@ -2,16 +2,28 @@ package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.user.model.UserPage;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collection;
 
 public interface UserService {
     // создать пользователя
     UserDto addUser(UserDto userDto);
 
-    // получить всех пользователей
+    // получить всех пользователей по возрастанию ИД
     Collection<UserDto> getUsers();
 
+    // получить пользователей по возрастанию ИД, постранично
+    Collection<UserDto> getUsers(int from, int size);
+
+    // получить пользователей по курсору, пустой курсор - первая страница
+    UserPage getUsers(String cursor, int size);
+
+    // запись всех пользователей в поток в формате NDJSON, возвращает количество пользователей
+    long streamUsers(OutputStream out) throws IOException;
+
     // получить пользователя по ИД
     UserDto getUser(Long userId);
 
@@ -23,4 +35,7 @@ public interface UserService {
 
     // получение пользователя, если не найден - ошибка 404
     User getUserOrNotFound(Long userId);
+
+    // проверка существования пользователя без загрузки из базы, если не найден - ошибка 404
+    void checkUserExists(Long userId);
 }
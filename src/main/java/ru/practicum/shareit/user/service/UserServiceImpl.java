@@ -8,14 +8,35 @@ import ru.practicum.shareit.user.model.UserDto;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.UserMapper;
 import ru.practicum.shareit.exception.NotFoundException;
-
+import ru.practicum.shareit.common.NdjsonWriter;
+import ru.practicum.shareit.common.SingleFlight;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.user.model.UserPage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.exception.ValidatorExceptions;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Optional;
 import java.util.Collection;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<Long, User> userLoads;
+    private final ItemViewCache itemViewCache;
 
     // создать пользователя
     @Override
@@ -26,15 +47,59 @@ public class UserServiceImpl implements UserService {
         return UserMapper.mapToUserDto(createdUser);
     }
 
-    // получить всех пользователей
+    // получить всех пользователей по возрастанию ИД
     @Override
     public Collection<UserDto> getUsers() {
-        Collection<UserDto> usersDtoList = UserMapper.mapToUserDto(userRepository.findAll());
-        log.info("UserService - предоставлен список пользователей: {} ", usersDtoList);
+        Collection<UserDto> usersDtoList = UserMapper.mapToUserDto(userRepository.findAll(Sort.by("id")));
+        log.info("UserService - предоставлен список пользователей, получено: {}", usersDtoList.size());
 
         return usersDtoList;
     }
 
+    // получить пользователей по возрастанию ИД, постранично
+    @Override
+    public Collection<UserDto> getUsers(int from, int size) {
+        Collection<UserDto> usersDtoList = UserMapper.mapToUserDto(
+                userRepository.findPage(PageRequest.of(from / size, size)));
+        log.info("UserService - предоставлен список пользователей, from: {}, size: {}, получено: {}",
+                from, size, usersDtoList.size());
+
+        return usersDtoList;
+    }
+
+    // получить пользователей по курсору, пустой курсор - первая страница
+    @Override
+    public UserPage getUsers(String cursor, int size) {
+        List<UserDto> users = UserMapper.mapToUserDto(
+                userRepository.findPageAfterId(decodeCursor(cursor), PageRequest.ofSize(size)));
+        String nextCursor = users.size() < size ? null : String.valueOf(users.get(users.size() - 1).getId());
+        log.info("UserService - предоставлен список пользователей по курсору: [{}], получено: {}",
+                cursor, users.size());
+
+        return new UserPage(users, nextCursor);
+    }
+
+    // запись всех пользователей в поток в формате NDJSON, контекст персистентности очищается после каждой порции
+    @Override
+    @Transactional(readOnly = true)
+    public long streamUsers(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAll();
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, UserDto.class, out)) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                writer.write(UserMapper.mapToUserDto(iterator.next()));
+                if (++count % UserRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        log.info("UserService - выгружено пользователей: {}", count);
+
+        return count;
+    }
+
     // получить пользователя по ИД
     @Override
     public UserDto getUser(Long userId) {
@@ -45,10 +110,11 @@ public class UserServiceImpl implements UserService {
         return userDto;
     }
 
-    // обновление пользователя
+    // обновление пользователя, при смене имени сбрасываются карточки вещей - имя выводится в комментариях
     @Override
     public UserDto updateUser(Long userId, UserDto userDto) {
-        User updatedUser = getUserOrNotFound(userId);
+        userCache.evict(userId);
+        User updatedUser = findUserOrNotFound(userId);
 
         String newEmail = userDto.getEmail();
         String newName = userDto.getName();
@@ -56,11 +122,16 @@ public class UserServiceImpl implements UserService {
         if (newEmail != null) {
             updatedUser.setEmail(newEmail);
         }
+        boolean nameChanged = newName != null && !newName.equals(updatedUser.getName());
         if (newName != null) {
             updatedUser.setName(newName);
         }
 
         updatedUser = userRepository.save(updatedUser);
+        userCache.evict(userId);
+        if (nameChanged) {
+            itemViewCache.evictViews();
+        }
         log.info("UserService - в базе обновлён пользователь: {}", updatedUser);
 
         return UserMapper.mapToUserDto(updatedUser);
@@ -69,16 +140,53 @@ public class UserServiceImpl implements UserService {
     // удалить пользователя по ИД
     @Override
     public void deleteUser(Long userId) {
-        getUserOrNotFound(userId);
+        checkUserExists(userId);
         log.info("UserController - удаление пользователя по ИД: {}", userId);
         userRepository.deleteById(userId);
+        userCache.evict(userId);
     }
 
-    // получение пользователя, если не найден - ошибка 404
+    // получение пользователя, если не найден - ошибка 404, одновременные загрузки одного пользователя объединяются
     @Override
     public User getUserOrNotFound(Long userId) {
+        Optional<User> cachedUser = userCache.get(userId);
+        if (cachedUser.isPresent()) {
+            return cachedUser.get();
+        }
+
+        return userLoads.load(userId, () -> {
+            long stamp = userCache.stamp(userId);
+            User user = findUserOrNotFound(userId);
+            userCache.put(user, stamp);
+
+            return user;
+        });
+    }
+
+    // проверка существования пользователя без загрузки из базы, если не найден - ошибка 404
+    @Override
+    public void checkUserExists(Long userId) {
+        if (userCache.get(userId).isEmpty() && !userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с ИД " + userId + " не найден.");
+        }
+    }
+
+    // загрузка пользователя из базы, минуя кэш
+    private User findUserOrNotFound(Long userId) {
         return userRepository
                 .findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с ИД " + userId + " не найден."));
     }
+
+    // ИД последнего пользователя предыдущей страницы из курсора, пустой курсор - с начала списка
+    private static Long decodeCursor(String cursor) {
+        if (cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new ValidatorExceptions("Некорректный курсор: " + cursor);
+        }
+    }
 }
\ No newline at end of file
@@ -1,17 +1,25 @@
 DROP ALL OBJECTS;
 
+-- идентификаторы выдаёт Hibernate блоками по 50 (pooled), шаг последовательности равен allocationSize сущности
+CREATE SEQUENCE IF NOT EXISTS users_seq    START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq    START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
     id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name       VARCHAR(256),
     email      VARCHAR(512),
+    version    BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_user       PRIMARY KEY (id),
     CONSTRAINT uq_user_email UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED ALWAYS AS IDENTITY,
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
     description  VARCHAR(256),
     requestor_id BIGINT,
     create_date  TIMESTAMP WITHOUT TIME ZONE,
@@ -27,6 +35,7 @@ CREATE TABLE IF NOT EXISTS items
     available    BOOLEAN,
     owner_id     BIGINT,
     request_id   BIGINT,
+    version      BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT   pk_item         PRIMARY KEY (id),
     CONSTRAINT   fk_item_user    FOREIGN KEY (owner_id)   references users (id),
     CONSTRAINT   fk_item_request FOREIGN KEY (request_id) references requests (id)
@@ -34,12 +43,13 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED ALWAYS AS IDENTITY,
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date   TIMESTAMP WITHOUT TIME ZONE,
     item_id    BIGINT,
     booker_id  BIGINT,
     status     VARCHAR(256),
+    version    BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_booking      PRIMARY KEY (id),
     CONSTRAINT fk_booking_item FOREIGN KEY (item_id)   references items (id),
     CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) references users (id)
@@ -47,7 +57,7 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id          BIGINT GENERATED ALWAYS AS IDENTITY,
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
     text        TEXT(512),
     item_id     BIGINT,
     author_id   BIGINT,
@@ -55,4 +65,16 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT  pk_comments     PRIMARY KEY (id),
     CONSTRAINT  fk_comment_item FOREIGN KEY (item_id)   references items (id),
     CONSTRAINT  fk_comment_user FOREIGN KEY (author_id) references users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, create_date);
+CREATE INDEX IF NOT EXISTS ix_requests_created           ON requests (create_date DESC);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner                ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request              ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start      ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start        ON bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end   ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item              ON comments (item_id);
@@ -0,0 +1,112 @@
+-- схема для PostgreSQL: выполняется при каждом запуске, данные не удаляются - таблицы и индексы создаются,
+-- если их нет, а изменения схемы применяются к таблицам, созданным предыдущими версиями
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- идентификаторы выдаёт Hibernate блоками по 50 (pooled), шаг последовательности равен allocationSize сущности
+CREATE SEQUENCE IF NOT EXISTS users_seq    START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq    START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name       VARCHAR(256),
+    email      VARCHAR(512),
+    version    BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_user       PRIMARY KEY (id),
+    CONSTRAINT uq_user_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS requests
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    description  VARCHAR(256),
+    requestor_id BIGINT,
+    create_date  TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT   pk_request      PRIMARY KEY (id),
+    CONSTRAINT   fk_request_user FOREIGN KEY (requestor_id) references users (id)
+);
+
+CREATE TABLE IF NOT EXISTS items
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    name         VARCHAR(256),
+    description  VARCHAR(1024),
+    available    BOOLEAN,
+    owner_id     BIGINT,
+    request_id   BIGINT,
+    version      BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT   pk_item         PRIMARY KEY (id),
+    CONSTRAINT   fk_item_user    FOREIGN KEY (owner_id)   references users (id),
+    CONSTRAINT   fk_item_request FOREIGN KEY (request_id) references requests (id)
+);
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    start_date TIMESTAMP WITHOUT TIME ZONE,
+    end_date   TIMESTAMP WITHOUT TIME ZONE,
+    item_id    BIGINT,
+    booker_id  BIGINT,
+    status     VARCHAR(256),
+    version    BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_booking      PRIMARY KEY (id),
+    CONSTRAINT fk_booking_item FOREIGN KEY (item_id)   references items (id),
+    CONSTRAINT fk_booking_user FOREIGN KEY (booker_id) references users (id)
+);
+
+CREATE TABLE IF NOT EXISTS comments
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    text        VARCHAR(512),
+    item_id     BIGINT,
+    author_id   BIGINT,
+    created     TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT  pk_comments     PRIMARY KEY (id),
+    CONSTRAINT  fk_comment_item FOREIGN KEY (item_id)   references items (id),
+    CONSTRAINT  fk_comment_user FOREIGN KEY (author_id) references users (id)
+);
+
+-- таблицы, созданные до появления версий и перехода на последовательности: ИД выдаёт Hibernate,
+-- столбцы версий заполняются нулём
+ALTER TABLE users    ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items    ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE requests ALTER COLUMN id SET GENERATED BY DEFAULT;
+ALTER TABLE bookings ALTER COLUMN id SET GENERATED BY DEFAULT;
+ALTER TABLE comments ALTER COLUMN id SET GENERATED BY DEFAULT;
+
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, create_date);
+CREATE INDEX IF NOT EXISTS ix_requests_created           ON requests (create_date DESC);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner                ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request              ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start      ON bookings (booker_id, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start        ON bookings (item_id, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_end   ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item              ON comments (item_id);
+
+-- поиск по подстроке LOWER(...) LIKE '%текст%' в доступных вещах
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm
+    ON items USING gin (LOWER(name) gin_trgm_ops)
+    WHERE available = true;
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm
+    ON items USING gin (LOWER(description) gin_trgm_ops)
+    WHERE available = true;
+
+-- tsvector используется только для упорядочивания найденных по подстроке вещей, индекс по нему не нужен
+DROP INDEX IF EXISTS ix_items_search_vector;
+
+-- значение последовательности не позади данных и только увеличивается, чтобы не пересечься с блоками ИД
+-- работающих экземпляров
+SELECT setval('users_seq',    GREATEST((SELECT last_value FROM users_seq),    (SELECT COALESCE(MAX(id), 0) FROM users) + 50));
+SELECT setval('requests_seq', GREATEST((SELECT last_value FROM requests_seq), (SELECT COALESCE(MAX(id), 0) FROM requests) + 50));
+SELECT setval('items_seq',    GREATEST((SELECT last_value FROM items_seq),    (SELECT COALESCE(MAX(id), 0) FROM items) + 50));
+SELECT setval('bookings_seq', GREATEST((SELECT last_value FROM bookings_seq), (SELECT COALESCE(MAX(id), 0) FROM bookings) + 50));
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 0) FROM comments) + 50));
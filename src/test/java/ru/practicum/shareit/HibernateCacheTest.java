@@ -0,0 +1,135 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.hibernate.SessionFactory;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.stat.Statistics;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.common.cache.HibernateCacheProperties;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Set;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.users.cache.maximum-size=0", "shareit.items.view-cache.maximum-size=0"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class HibernateCacheTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void addData() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userService.addUser(new UserDto(null, "owner", "owner@user.com"));
+        userService.addUser(new UserDto(null, "booker", "booker@user.com"));
+        itemService.addItem(1L, ItemDto.builder().name("Дрель").description("Простая дрель").available(true).build());
+    }
+
+    @Test
+    void testEntityCacheHitsAndInvalidation() {
+        statistics.clear();
+        userService.getUser(1L);
+        itemService.getItemByItemIdAndUserId(1L, 2L);
+        itemService.getItemByItemIdAndUserId(1L, 2L);
+
+        assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), greaterThanOrEqualTo(2L));
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), greaterThanOrEqualTo(1L));
+        assertThat(statistics.getDomainDataRegionStatistics("items").getMissCount(), is(0L));
+
+        itemService.updateItem(1L, 1L, ItemDto.builder().name("Дрель ударная").build());
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 2L).getName(), is("Дрель ударная"));
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "items", "result", "hit")
+                .functionCounter()
+                .count(), greaterThanOrEqualTo(2.0));
+    }
+
+    @Test
+    void testCommentsQueryCache() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        BookingDto booking = bookingService.addBooking(2L, BookingDto.builder()
+                .itemId(1L).start(now.plusSeconds(1)).end(now.plusSeconds(2)).status(Status.WAITING).build());
+        bookingService.setApprove(booking.getId(), 1L, true);
+
+        statistics.clear();
+        assertThat(commentRepository.findAllByItem_Id(1L), empty());
+        assertThat(commentRepository.findAllByItem_Id(1L), empty());
+        assertThat(statistics.getQueryRegionStatistics(CommentRepository.COMMENTS_BY_ITEM_REGION).getHitCount(), is(1L));
+        assertThat(statistics.getQueryRegionStatistics(CommentRepository.COMMENTS_BY_ITEM_REGION).getMissCount(), is(1L));
+
+        awaitBookingEnd(now.plusSeconds(2));
+        itemService.addComment(2L, 1L, CommentDto.builder().text("Отличная дрель").build());
+
+        assertThat(commentRepository.findAllByItem_Id(1L), hasSize(1));
+        assertThat(commentRepository.findAllByItem_Id(1L), hasSize(1));
+        assertThat(statistics.getQueryRegionStatistics(CommentRepository.COMMENTS_BY_ITEM_REGION).getHitCount(), is(2L));
+        assertThat(meterRegistry.find("hibernate.cache.query.requests")
+                .tags("result", "hit")
+                .functionCounter(), notNullValue());
+    }
+
+    @Test
+    void testCachedEntityRegionsAreCreatedByDefault() {
+        MetamodelImplementor metamodel = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMetamodel();
+        Set<String> cachedRegions = Stream.concat(
+                        metamodel.entityPersisters().values().stream()
+                                .filter(EntityPersister::canWriteToCache)
+                                .map(persister -> persister.getCacheAccessStrategy().getRegion().getName()),
+                        metamodel.collectionPersisters().values().stream()
+                                .filter(CollectionPersister::hasCache)
+                                .map(persister -> persister.getCacheAccessStrategy().getRegion().getName()))
+                .collect(Collectors.toSet());
+
+        assertThat(cachedRegions, hasItems("users", "items", "requests", "comments"));
+        // области берутся из настроек по умолчанию, а не из профиля: без них запуск с create-warn создал бы
+        // области без ограничения размера, с fail - не запустился бы
+        assertThat(new HibernateCacheProperties().getRegions().keySet(), hasItems(cachedRegions.toArray(String[]::new)));
+    }
+
+    private void awaitBookingEnd(LocalDateTime end) throws InterruptedException {
+        while (!LocalDateTime.now().isAfter(end)) {
+            Thread.sleep(50);
+        }
+    }
+}
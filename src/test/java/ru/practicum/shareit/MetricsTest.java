@@ -0,0 +1,92 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@SpringBootTest(properties = "db.name=test")
+class MetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSqlStatementsAndRepositoryTimers() throws Exception {
+        mockMvc.perform(post("/users")
+                        .content("{\"name\": \"user\", \"email\": \"user@user.com\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("shareit.sql.statements")
+                .tags("uri", "/users", "method", "GET", "state", "none")
+                .summary();
+        assertThat(statements, notNullValue());
+        assertThat(statements.count(), is(1L));
+        assertThat(statements.totalAmount(), greaterThanOrEqualTo(1.0));
+
+        Timer repositoryTimer = meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "UserRepository", "method", "save")
+                .timer();
+        assertThat(repositoryTimer, notNullValue());
+    }
+
+    @Test
+    void testSqlStatementsOfStreamingResponse() throws Exception {
+        mockMvc.perform(post("/users")
+                        .content("{\"name\": \"user\", \"email\": \"user@user.com\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        // выгрузка читает пользователей в потоке асинхронной задачи, запросы засчитываются HTTP-запросу
+        DistributionSummary statements = meterRegistry.find("shareit.sql.statements")
+                .tags("uri", "/users/stream", "method", "GET")
+                .summary();
+        assertThat(statements, notNullValue());
+        assertThat(statements.count(), is(1L));
+        assertThat(statements.totalAmount(), greaterThanOrEqualTo(1.0));
+    }
+
+    @Test
+    void testStateTag() throws Exception {
+        mockMvc.perform(get("/bookings/owner?state=PAST")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings/owner?state=SOMETHING")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.find("http.server.requests")
+                .tags("uri", "/bookings/owner", "state", "PAST")
+                .timer(), notNullValue());
+        assertThat(meterRegistry.find("http.server.requests")
+                .tags("uri", "/bookings/owner", "state", "UNKNOWN")
+                .timer(), notNullValue());
+    }
+}
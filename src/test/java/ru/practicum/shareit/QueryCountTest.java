@@ -0,0 +1,127 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.metrics.SqlStatementCounter;
+import ru.practicum.shareit.item.model.comment.CommentDto;
+import ru.practicum.shareit.request.model.ItemRequestDto;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+
+import java.util.function.Supplier;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Количество SQL-запросов на вызов сервиса при нескольких вещах, бронях, комментариях и запросах:
+ * ленивые связи не должны догружаться по одной на строку (N+1). Результат сериализуется внутри подсчёта,
+ * чтобы непрогруженная связь в ответе тоже была замечена. Кэши отключены, считаются только запросы к базе.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@SpringBootTest(
+        properties = {
+                "db.name=test",
+                "shareit.users.cache.maximum-size=0",
+                "shareit.items.view-cache.maximum-size=0",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class QueryCountTest {
+    private static final int ROWS = 3;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    @Autowired
+    private ItemRequestServiceImpl itemRequestService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+    private Long bookingId;
+    private Long requestId;
+
+    @BeforeAll
+    void addData() {
+        ownerId = userService.addUser(new UserDto(null, "owner", "owner@user.com")).getId();
+        bookerId = userService.addUser(new UserDto(null, "booker", "booker@user.com")).getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < ROWS; i++) {
+            requestId = itemRequestService.addItemRequest(bookerId,
+                    ItemRequestDto.builder().description("Нужна дрель " + i).build()).getId();
+            itemId = itemService.addItem(ownerId, ItemDto.builder()
+                    .name("Дрель " + i).description("Простая дрель").available(true).requestId(requestId).build())
+                    .getId();
+
+            BookingDto past = bookingService.addBooking(bookerId, BookingDto.builder()
+                    .itemId(itemId).start(now.minusDays(2)).end(now.minusDays(1)).build());
+            bookingService.setApprove(past.getId(), ownerId, true);
+            bookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                    .itemId(itemId).start(now.plusDays(1)).end(now.plusDays(2)).build()).getId();
+            bookingService.setApprove(bookingId, ownerId, true);
+
+            itemService.addComment(bookerId, itemId, CommentDto.builder().text("Отличная дрель").build());
+        }
+    }
+
+    @Test
+    void testBookingQueries() {
+        assertStatements(2, () -> bookingService.findByBookingIdAndUserId(bookingId, bookerId));
+        assertStatements(2, () -> bookingService.getBookingETag(bookingId, bookerId));
+        assertStatements(2, () -> bookingService.findBookingsByUserIdAndState(bookerId, "ALL", 0, 10));
+        assertStatements(2, () -> bookingService.findBookingsByOwnerIdAndState(ownerId, "ALL", 0, 10));
+        assertStatements(2, () -> bookingService.findBookingsByOwnerIdAndState(ownerId, "PAST", "", 10));
+    }
+
+    @Test
+    void testItemQueries() {
+        assertStatements(5, () -> itemService.getItems(ownerId, 0, 10));
+        assertStatements(5, () -> itemService.getItemByItemIdAndUserId(itemId, ownerId));
+        assertStatements(3, () -> itemService.getItemByItemIdAndUserId(itemId, bookerId));
+        assertStatements(2, () -> itemService.getItemETag(itemId, ownerId));
+        assertStatements(2, () -> itemService.getItemETag(itemId, bookerId));
+        assertStatements(2, () -> itemService.searchItems("дрель", 0, 10));
+    }
+
+    @Test
+    void testItemRequestQueries() {
+        assertStatements(3, () -> itemRequestService.getItemRequestsByUser(bookerId));
+        assertStatements(3, () -> itemRequestService.getRequestsOtherUsers(ownerId, 0, 10));
+        assertStatements(3, () -> itemRequestService.getItemRequestByUser(ownerId, requestId));
+        assertStatements(2, () -> itemRequestService.getItemRequestETag(ownerId, requestId));
+    }
+
+    private void assertStatements(int expected, Supplier<Object> serviceCall) {
+        SqlStatementCounter.start();
+        try {
+            objectMapper.writeValueAsString(serviceCall.get());
+        } catch (Exception e) {
+            SqlStatementCounter.stop();
+            throw new AssertionError(e);
+        }
+        assertThat(SqlStatementCounter.stop(), is(expected));
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка планов запросов репозиториев на H2: ни один запрос не должен читать таблицу целиком.
+ * Поиск по подстроке (searchByText, searchIdsByText) не проверяется - LIKE '%текст%' не использует
+ * B-tree индексы, в PostgreSQL для него есть триграммные индексы, на H2 поиск обслуживает индекс в памяти.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.SqlStatementCollector")
+class QueryPlanTest {
+    private static final String FULL_SCAN = "tableScan";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @TestFactory
+    Stream<DynamicTest> testRepositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 10);
+        List<Long> ids = List.of(1L, 2L);
+
+        Map<String, Executable> queries = new LinkedHashMap<>();
+        queries.put("existsFinishedBooking", () -> bookingRepository
+                .existsFinishedBooking(1L, 1L, Status.APPROVED, now));
+        queries.put("findAllWithItemByIdIn", () -> bookingRepository.findAllWithItemByIdIn(ids));
+        queries.put("findItemIdsByIdIn", () -> bookingRepository.findItemIdsByIdIn(ids));
+        queries.put("updateStatusIfUnchanged", () -> bookingRepository
+                .updateStatusIfUnchanged(ids, Status.WAITING, Status.APPROVED));
+        queries.put("existsOverlappingBooking", () -> bookingRepository
+                .existsOverlappingBooking(1L, now, now.plusDays(1), List.of(Status.WAITING, Status.APPROVED), 0L));
+        queries.put("findVersionById", () -> bookingRepository.findVersionById(1L));
+        queries.put("findIntervals", () -> bookingRepository
+                .findIntervals(List.of(Status.WAITING, Status.APPROVED), now, 0L, page));
+        queries.put("findNextBookingsByItemIds", () -> bookingRepository
+                .findNextBookingsByItemIds(ids, now, Status.APPROVED));
+        queries.put("findLastBookingsByItemIds", () -> bookingRepository
+                .findLastBookingsByItemIds(ids, now, Status.APPROVED));
+        queries.put("findAllByBooker_IdOrderByStartDesc", () -> bookingRepository
+                .findAllByBooker_IdOrderByStartDesc(1L, page));
+        queries.put("findAllByBooker_IdAndStatusCurrentOrderByStartDesc", () -> bookingRepository
+                .findAllByBooker_IdAndStatusCurrentOrderByStartDesc(1L, now, page));
+        queries.put("findAllByBooker_IdAndStartIsAfterOrderByStartDesc", () -> bookingRepository
+                .findAllByBooker_IdAndStartIsAfterOrderByStartDesc(1L, now, page));
+        queries.put("findAllByBooker_IdAndEndIsBeforeOrderByStartDesc", () -> bookingRepository
+                .findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(1L, now, page));
+        queries.put("findAllByBooker_IdAndStatusOrderByStartDesc", () -> bookingRepository
+                .findAllByBooker_IdAndStatusOrderByStartDesc(1L, Status.WAITING, page));
+        queries.put("findAllByItem_OwnerOrderByStartDesc", () -> bookingRepository
+                .findAllByItem_OwnerOrderByStartDesc(1L, page));
+        queries.put("findAllByItem_OwnerAndStatusCurrentOrderByStartDesc", () -> bookingRepository
+                .findAllByItem_OwnerAndStatusCurrentOrderByStartDesc(1L, now, page));
+        queries.put("findAllByItem_OwnerAndStartIsAfterOrderByStartDesc", () -> bookingRepository
+                .findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(1L, now, page));
+        queries.put("findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc", () -> bookingRepository
+                .findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(1L, now, page));
+        queries.put("findAllByItem_OwnerAndStatusOrderByStartDesc", () -> bookingRepository
+                .findAllByItem_OwnerAndStatusOrderByStartDesc(1L, Status.WAITING, page));
+        queries.put("findPageByBooker", () -> bookingRepository
+                .findPageByBooker(1L, now, 1L, page));
+        queries.put("findCurrentPageByBooker", () -> bookingRepository
+                .findCurrentPageByBooker(1L, now, 1L, now, page));
+        queries.put("findFuturePageByBooker", () -> bookingRepository
+                .findFuturePageByBooker(1L, now, 1L, now, page));
+        queries.put("findPastPageByBooker", () -> bookingRepository
+                .findPastPageByBooker(1L, now, 1L, now, page));
+        queries.put("findPageByBookerAndStatus", () -> bookingRepository
+                .findPageByBookerAndStatus(1L, now, 1L, Status.WAITING, page));
+        queries.put("findPageByOwner", () -> bookingRepository
+                .findPageByOwner(1L, now, 1L, page));
+        queries.put("findCurrentPageByOwner", () -> bookingRepository
+                .findCurrentPageByOwner(1L, now, 1L, now, page));
+        queries.put("findFuturePageByOwner", () -> bookingRepository
+                .findFuturePageByOwner(1L, now, 1L, now, page));
+        queries.put("findPastPageByOwner", () -> bookingRepository
+                .findPastPageByOwner(1L, now, 1L, now, page));
+        queries.put("findPageByOwnerAndStatus", () -> bookingRepository
+                .findPageByOwnerAndStatus(1L, now, 1L, Status.WAITING, page));
+
+        queries.put("findAndLockById", () -> itemRepository.findAndLockById(1L));
+        queries.put("findAllByOwner", () -> itemRepository.findAllByOwner(1L, page));
+        queries.put("findAllByRequest_Id", () -> itemRepository.findAllByRequest_Id(1L));
+        queries.put("findAllByRequest_IdIn", () -> itemRepository.findAllByRequest_IdIn(ids));
+        queries.put("findAllByAvailableIsTrueAndIdGreaterThanOrderById", () -> itemRepository
+                .findAllByAvailableIsTrueAndIdGreaterThanOrderById(0L, page));
+
+        queries.put("findAllByItem_Id", () -> commentRepository.findAllByItem_Id(1L));
+        queries.put("findAllByItem_IdIn", () -> commentRepository.findAllByItem_IdIn(ids));
+
+        queries.put("findAllByRequestor_IdOrderByCreatedDesc", () -> itemRequestRepository
+                .findAllByRequestor_IdOrderByCreatedDesc(1L));
+        queries.put("findAllByRequestor_IdIsNotOrderByCreatedDesc", () -> itemRequestRepository
+                .findAllByRequestor_IdIsNotOrderByCreatedDesc(1L, page));
+
+        queries.put("findPage", () -> userRepository.findPage(page));
+        queries.put("findPageAfterId", () -> userRepository.findPageAfterId(1L, page));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertUsesIndexes(query.getValue())));
+    }
+
+    private void assertUsesIndexes(Executable query) throws Throwable {
+        SqlStatementCollector.clear();
+        query.execute();
+        List<String> statements = SqlStatementCollector.getStatements();
+
+        assertFalse(statements.isEmpty(), "Запрос не был отправлен в базу");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(FULL_SCAN), "Полное чтение таблицы в плане запроса:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next());
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.ArrayList;
+
+/**
+ * Сохраняет SQL, который Hibernate отправляет в базу, для проверки запросов в тестах
+ */
+public class SqlStatementCollector implements StatementInspector {
+    private static final List<String> statements = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        statements.clear();
+    }
+
+    public static List<String> getStatements() {
+        return new ArrayList<>(statements);
+    }
+}
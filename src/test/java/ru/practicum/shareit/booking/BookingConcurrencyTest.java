@@ -0,0 +1,239 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Nested;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.service.ItemLocks;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.DuplicateException;
+import ru.practicum.shareit.exception.ValidatorExceptions;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD;
+
+/**
+ * Параллельные бронирования и подтверждения одной вещи: под блокировкой вещи проходит ровно одна операция,
+ * подтверждение без блокировок защищено версией брони, для сравнения режимов в лог выводится пропускная способность.
+ * Каждый режим блокировок проверяется в своём контексте (shareit.bookings.lock.mode), конфигурация контекста
+ * объявлена на ModeTests - внешний класс без тестов собственный контекст не поднимает.
+ */
+@Slf4j
+class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ITEMS = 4;
+    private static final int BOOKINGS_PER_THREAD = 25;
+
+    @Nested
+    @TestPropertySource(properties = "shareit.bookings.lock.mode=STRIPED")
+    class Striped extends LockedModeTests {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit.bookings.lock.mode=DATABASE")
+    class Database extends LockedModeTests {
+        @Test
+        void testOverlapIndexIsNotUsed() {
+            assertThat(bookingIntervalIndex.isEnabled(), is(false));
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit.bookings.lock.mode=NONE")
+    class Unlocked extends ModeTests {
+    }
+
+    abstract class LockedModeTests extends ModeTests {
+        @Test
+        void testConcurrentBookingsOfOneItem() throws Exception {
+            Long itemId = addItem(addUser("owner"));
+            List<Long> bookerIds = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                bookerIds.add(addUser("booker" + i));
+            }
+
+            List<Boolean> results = runConcurrently(thread -> {
+                try {
+                    bookingService.addBooking(bookerIds.get(thread), makeBookingDto(itemId, start, start.plusDays(1)));
+                    return true;
+                } catch (DuplicateException e) {
+                    return false;
+                }
+            });
+
+            assertThat(results.stream().filter(Boolean::booleanValue).count(), is(1L));
+            assertThat(bookingRepository.count(), is(1L));
+        }
+
+        @Test
+        void testConcurrentBulkAndSingleApprovals() throws Exception {
+            Long ownerId = addUser("owner");
+            Long itemId = addItem(ownerId);
+            Long bookingId = bookingService
+                    .addBooking(addUser("booker"), makeBookingDto(itemId, start, start.plusDays(1)))
+                    .getId();
+
+            // подтверждения и отклонения одной ожидающей брони, статус меняется только один раз
+            List<Boolean> results = runConcurrently(thread -> {
+                boolean approved = thread % 4 < 2;
+                if (thread % 2 == 0) {
+                    return bookingService.setApproveAll(ownerId, List.of(bookingId), approved)
+                            .get(0).getError() == null;
+                }
+                try {
+                    bookingService.setApprove(bookingId, ownerId, approved);
+                    return true;
+                } catch (ValidatorExceptions e) {
+                    return false;
+                }
+            });
+
+            assertThat(results.stream().filter(Boolean::booleanValue).count(), is(1L));
+            assertThat(bookingRepository.findById(bookingId).orElseThrow().getVersion(), is(1L));
+        }
+    }
+
+    @DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
+    @SpringBootTest(
+            properties = "db.name=test",
+            webEnvironment = SpringBootTest.WebEnvironment.NONE)
+    abstract class ModeTests {
+        @Autowired
+        protected ItemLocks itemLocks;
+
+        @Autowired
+        protected UserServiceImpl userService;
+
+        @Autowired
+        protected ItemServiceImpl itemService;
+
+        @Autowired
+        protected BookingServiceImpl bookingService;
+
+        @Autowired
+        protected BookingRepository bookingRepository;
+
+        @Autowired
+        protected BookingIntervalIndex bookingIntervalIndex;
+
+        protected final LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        @Test
+        void testConcurrentApprovals() throws Exception {
+            Long ownerId = addUser("owner");
+            Long itemId = addItem(ownerId);
+            Long bookingId = bookingService
+                    .addBooking(addUser("booker"), makeBookingDto(itemId, start, start.plusDays(1)))
+                    .getId();
+
+            List<Boolean> results = runConcurrently(thread -> {
+                try {
+                    bookingService.setApprove(bookingId, ownerId, true);
+                    return true;
+                } catch (ValidatorExceptions e) {
+                    return false;
+                }
+            });
+
+            assertThat(results.stream().filter(Boolean::booleanValue).count(), is(1L));
+            assertThat(bookingRepository.findById(bookingId).orElseThrow().getStatus(), is(Status.APPROVED));
+        }
+
+        @Test
+        void testThroughput() throws Exception {
+            Long ownerId = addUser("owner");
+            List<Long> itemIds = new ArrayList<>();
+            for (int i = 0; i < ITEMS; i++) {
+                itemIds.add(addItem(ownerId));
+            }
+            List<Long> bookerIds = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                bookerIds.add(addUser("booker" + i));
+            }
+            long startNanos = System.nanoTime();
+
+            runConcurrently(thread -> {
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDateTime bookingStart = start.plusDays((long) i * THREADS + thread);
+                    bookingService.addBooking(bookerIds.get(thread), makeBookingDto(
+                            itemIds.get(i % ITEMS), bookingStart, bookingStart.plusHours(12)));
+                }
+                return true;
+            });
+
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            log.info("BookingConcurrencyTest - режим {}: {} бронирований/с", itemLocks.getMode(),
+                    Math.round(THREADS * BOOKINGS_PER_THREAD / seconds));
+            assertThat(bookingRepository.count(), is((long) THREADS * BOOKINGS_PER_THREAD));
+        }
+
+        protected List<Boolean> runConcurrently(ThreadTask task) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch ready = new CountDownLatch(1);
+            try {
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    int thread = i;
+                    Callable<Boolean> callable = () -> {
+                        ready.await();
+                        return task.run(thread);
+                    };
+                    futures.add(executor.submit(callable));
+                }
+                ready.countDown();
+
+                List<Boolean> results = new ArrayList<>();
+                for (Future<Boolean> future : futures) {
+                    results.add(future.get());
+                }
+                return results;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        protected Long addUser(String name) {
+            return userService.addUser(new UserDto(null, name, name + "@mail.com")).getId();
+        }
+
+        protected Long addItem(Long ownerId) {
+            return itemService.addItem(ownerId, ItemDto.builder()
+                    .name("Дрель")
+                    .description("Простая дрель")
+                    .available(true)
+                    .build()).getId();
+        }
+
+        protected BookingDto makeBookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+            return BookingDto.builder()
+                    .itemId(itemId)
+                    .start(start)
+                    .end(end)
+                    .build();
+        }
+    }
+
+    private interface ThreadTask {
+        Boolean run(int thread);
+    }
+}
@@ -17,6 +17,8 @@ import java.time.format.DateTimeFormatter;
 import static org.mockito.Mockito.*;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -88,6 +90,27 @@ class BookingControllerTest {
         verify(bookingService, times(1)).setApprove(anyLong(), anyLong(), anyBoolean());
     }
 
+    @Test
+    void testSetApproveAll() throws Exception {
+        when(bookingService.setApproveAll(2L, List.of(1L, 5L), true))
+                .thenReturn(List.of(
+                        BookingApprovalResult.success(1L, Status.APPROVED),
+                        BookingApprovalResult.failure(5L, "Аренда с ИД 5 не найден.")));
+
+        mockMvc.perform(patch("/bookings/owner/approve?approved=true")
+                        .header(USER_REQUEST_HEADER, 2L)
+                        .content(mapper.writeValueAsString(List.of(1L, 5L)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1L), Long.class))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].bookingId", is(5L), Long.class))
+                .andExpect(jsonPath("$[1].error", is("Аренда с ИД 5 не найден.")));
+
+        verify(bookingService, times(1)).setApproveAll(anyLong(), anyList(), anyBoolean());
+    }
+
     @Test
     void testFindByBookingIdAndUserId() throws Exception {
         when(bookingService.findByBookingIdAndUserId(1L, 1L))
@@ -110,6 +133,29 @@ class BookingControllerTest {
         verify(bookingService, times(1)).findByBookingIdAndUserId(anyLong(), anyLong());
     }
 
+    @Test
+    void testFindByBookingIdAndUserIdNotModified() throws Exception {
+        when(bookingService.getBookingETag(1L, 1L))
+                .thenReturn("\"booking-1-0-0\"");
+        when(bookingService.findByBookingIdAndUserId(1L, 1L))
+                .thenReturn(bookingDto);
+
+        mockMvc.perform(get("/bookings/1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"booking-1-0-0\""));
+
+        mockMvc.perform(get("/bookings/1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .header("If-None-Match", "\"booking-1-0-0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookingService, times(1)).findByBookingIdAndUserId(anyLong(), anyLong());
+    }
+
 
     @Test
     void getAll() throws Exception {
@@ -154,4 +200,20 @@ class BookingControllerTest {
 
         verify(bookingService, times(1)).findBookingsByOwnerIdAndState(anyLong(), anyString(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindBookingsByOwnerIdAndStateWithCursor() throws Exception {
+        when(bookingService.findBookingsByOwnerIdAndState(1L, "ALL", "", 1))
+                .thenReturn(new BookingPage(List.of(bookingDto), "next"));
+
+        mockMvc.perform(get("/bookings/owner?cursor=&size=1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Long.class));
+
+        verify(bookingService, times(1)).findBookingsByOwnerIdAndState(1L, "ALL", "", 1);
+        verify(bookingService, never()).findBookingsByOwnerIdAndState(anyLong(), anyString(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.http.MediaType;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.booking.model.BookingDto;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@SpringBootTest(properties = {"db.name=test", "shareit.admin.user-ids=1"})
+class BookingExportTest {
+    private static final String USER_REQUEST_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private BookingServiceImpl bookingService;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @BeforeEach
+    void addData() {
+        userService.addUser(makeUserDto("admin", "admin@user.com"));
+        userService.addUser(makeUserDto("owner", "owner@user.com"));
+        userService.addUser(makeUserDto("booker", "booker@user.com"));
+        itemService.addItem(2L, makeItemDto("Дрель"));
+        itemService.addItem(2L, makeItemDto("Отвёртка"));
+
+        for (int i = 0; i < 3; i++) {
+            bookingService.addBooking(3L, makeBookingDto(1L, start.plusDays(i * 2L)));
+        }
+        bookingService.addBooking(3L, makeBookingDto(2L, start));
+        bookingService.setApprove(1L, 2L, true);
+    }
+
+    @Test
+    void testExportAllBookings() throws Exception {
+        List<BookingDto> bookings = export("/admin/bookings/export");
+
+        assertThat(bookings, hasSize(4));
+        assertThat(bookings.get(0).getId(), is(1L));
+        assertThat(bookings.get(0).getStatus().name(), is("APPROVED"));
+        assertThat(bookings.get(0).getItem().getName(), is("Дрель"));
+        assertThat(bookings.get(0).getBooker().getId(), is(3L));
+        assertThat(bookings.get(3).getItemId(), is(2L));
+    }
+
+    @Test
+    void testExportWithFilters() throws Exception {
+        assertThat(export("/admin/bookings/export?itemId=2"), hasSize(1));
+        assertThat(export("/admin/bookings/export?ownerId=2&status=WAITING"), hasSize(3));
+        assertThat(export("/admin/bookings/export?ownerId=3"), empty());
+        assertThat(export("/admin/bookings/export?itemId=1&from=" + start.plusDays(1)
+                + "&to=" + start.plusDays(5)), hasSize(2));
+    }
+
+    @Test
+    void testExportForbiddenAndUnknownStatus() throws Exception {
+        mockMvc.perform(get("/admin/bookings/export")
+                        .header(USER_REQUEST_HEADER, 2L))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/admin/bookings/export?status=SOMETHING")
+                        .header(USER_REQUEST_HEADER, 1L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown status: SOMETHING")));
+    }
+
+    private List<BookingDto> export(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)
+                        .header(USER_REQUEST_HEADER, 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<BookingDto> bookings = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                assertThat(line, startsWith("{"));
+                bookings.add(mapper.readValue(line, BookingDto.class));
+            }
+        }
+
+        return bookings;
+    }
+
+    private UserDto makeUserDto(String name, String email) {
+        UserDto dto = new UserDto();
+        dto.setName(name);
+        dto.setEmail(email);
+        return dto;
+    }
+
+    private ItemDto makeItemDto(String name) {
+        ItemDto dto = new ItemDto();
+        dto.setName(name);
+        dto.setDescription("Простая " + name);
+        dto.setAvailable(true);
+        return dto;
+    }
+
+    private BookingDto makeBookingDto(Long itemId, LocalDateTime bookingStart) {
+        BookingDto dto = new BookingDto();
+        dto.setItemId(itemId);
+        dto.setStart(bookingStart);
+        dto.setEnd(bookingStart.plusDays(1));
+        return dto;
+    }
+}
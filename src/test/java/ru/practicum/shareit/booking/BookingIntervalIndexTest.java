@@ -0,0 +1,120 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Assertions;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.item.Item;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.service.ItemLocks;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+
+import java.util.Map;
+import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.Mockito.*;
+
+class BookingIntervalIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingIntervalIndex bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+
+    @BeforeEach
+    void addData() {
+        ReflectionTestUtils.setField(bookingIntervalIndex, "enabled", true);
+        when(bookingRepository.findIntervals(any(), any(), eq(0L), any())).thenReturn(List.of(
+                new BookingInterval(1L, 1L, DAY.plusDays(1), DAY.plusDays(3)),
+                new BookingInterval(2L, 1L, DAY.plusDays(10), DAY.plusDays(30))));
+        bookingIntervalIndex.rebuild();
+        bookingIntervalIndex.put(makeBooking(3L, 2L, DAY.plusDays(1), DAY.plusDays(2), Status.WAITING));
+    }
+
+    @Test
+    void testHasOverlap() {
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(2), DAY.plusDays(4), null));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(20), DAY.plusDays(21), null));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, DAY, DAY.plusDays(40), null));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(2L, DAY, DAY.plusDays(5), null));
+
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(3), DAY.plusDays(10), null));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(1L, DAY, DAY.plusDays(1), null));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(2), DAY.plusDays(4), 1L));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(3L, DAY, DAY.plusDays(40), null));
+    }
+
+    @Test
+    void testPutAndRemove() {
+        bookingIntervalIndex.put(makeBooking(1L, 1L, DAY.plusDays(1), DAY.plusDays(3), Status.REJECTED));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(2), DAY.plusDays(4), null));
+
+        bookingIntervalIndex.put(makeBooking(1L, 1L, DAY.plusDays(1), DAY.plusDays(3), Status.APPROVED));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(2), DAY.plusDays(4), null));
+
+        bookingIntervalIndex.put(makeBooking(2L, 1L, DAY.plusDays(10), DAY.plusDays(30), Status.REJECTED));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(20), DAY.plusDays(21), null));
+    }
+
+    @Test
+    void testPruneEndedBookings() {
+        LocalDateTime now = LocalDateTime.now();
+        bookingIntervalIndex.put(makeBooking(4L, 4L, now.minusDays(100), now.plusDays(1), Status.APPROVED));
+        bookingIntervalIndex.put(makeBooking(5L, 4L, now.plusDays(10), now.plusDays(11), Status.APPROVED));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(4L, now.minusDays(50), now.minusDays(49), null));
+
+        // длинная бронь завершилась - при изменении брони вещи она удаляется, окно поиска сужается
+        bookingIntervalIndex.put(makeBooking(4L, 4L, now.minusDays(100), now.minusDays(1), Status.APPROVED));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(4L, now.minusDays(50), now.minusDays(49), null));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(4L, now.plusDays(10), now.plusDays(12), null));
+        Assertions.assertEquals(Duration.ofDays(1), ReflectionTestUtils.getField(
+                ((Map<?, ?>) ReflectionTestUtils.getField(bookingIntervalIndex, "items")).get(4L), "maxDuration"));
+    }
+
+    @Test
+    void testScheduledPrune() {
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.findIntervals(any(), any(), eq(0L), any())).thenReturn(List.of(
+                new BookingInterval(1L, 1L, now.minusDays(3), now.minusDays(2)),
+                new BookingInterval(2L, 1L, DAY.plusDays(10), DAY.plusDays(30))));
+        bookingIntervalIndex.rebuild();
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, now.minusDays(3), now.minusDays(2), null));
+
+        bookingIntervalIndex.prune();
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(1L, now.minusDays(3), now.minusDays(2), null));
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, DAY.plusDays(20), DAY.plusDays(21), null));
+    }
+
+    @Test
+    void testDisabledIndexUsesDatabase() {
+        ReflectionTestUtils.setField(bookingIntervalIndex, "enabled", false);
+        when(bookingRepository.existsOverlappingBooking(1L, DAY, DAY.plusDays(1),
+                BookingIntervalIndex.BLOCKING_STATUSES, 0L)).thenReturn(true);
+
+        Assertions.assertTrue(bookingIntervalIndex.hasOverlap(1L, DAY, DAY.plusDays(1), null));
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(2L, DAY, DAY.plusDays(1), null));
+    }
+
+    @Test
+    void testDatabaseLockModeUsesDatabase() {
+        ReflectionTestUtils.setField(bookingIntervalIndex, "lockMode", ItemLocks.Mode.DATABASE);
+        when(bookingRepository.existsOverlappingBooking(2L, DAY, DAY.plusDays(5),
+                BookingIntervalIndex.BLOCKING_STATUSES, 0L)).thenReturn(false);
+
+        Assertions.assertFalse(bookingIntervalIndex.isEnabled());
+        Assertions.assertFalse(bookingIntervalIndex.hasOverlap(2L, DAY, DAY.plusDays(5), null));
+    }
+
+    private Booking makeBooking(Long id, Long itemId, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
 import ru.practicum.shareit.user.model.User;
@@ -7,11 +8,16 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.item.Item;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.BookingCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @DataJpaTest
@@ -25,8 +31,11 @@ public class BookingRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
     @Test
-    void testFindByBooker_Id() {
+    void testFindAllByBooker_Id() {
         LocalDateTime start = LocalDateTime.now().plusDays(1);
         LocalDateTime end = LocalDateTime.now().plusDays(2);
 
@@ -52,7 +61,108 @@ public class BookingRepositoryTest {
                 .build();
         bookingRepository.save(booking);
 
-        List<Booking> bookings = (List<Booking>) bookingRepository.findByBooker_Id(1L);
-        Assertions.assertFalse(bookings.isEmpty());
+        List<BookingDto> bookings = bookingRepository.findAllByBooker_IdOrderByStartDesc(
+                user.getId(), PageRequest.ofSize(10));
+        Assertions.assertEquals(1, bookings.size());
+        Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void testFindPageByBookerAfterCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@mail.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(user.getId())
+                .build());
+
+        for (int i = 0; i < 5; i++) {
+            bookingRepository.save(Booking.builder()
+                    .start(i < 2 ? start : start.plusDays(i))
+                    .end(start.plusDays(10))
+                    .item(item)
+                    .booker(user)
+                    .status(Status.WAITING)
+                    .build());
+        }
+
+        BookingCursor cursor = BookingCursor.FIRST;
+        List<BookingDto> firstPage = bookingRepository.findPageByBooker(
+                user.getId(), cursor.getStart(), cursor.getId(), PageRequest.ofSize(3));
+        Assertions.assertEquals(3, firstPage.size());
+        Assertions.assertEquals(start.plusDays(4), firstPage.get(0).getStart());
+
+        BookingDto last = firstPage.get(2);
+        List<BookingDto> secondPage = bookingRepository.findPageByBooker(
+                user.getId(), last.getStart(), last.getId(), PageRequest.ofSize(3));
+        Assertions.assertEquals(2, secondPage.size());
+        Assertions.assertEquals(start, secondPage.get(0).getStart());
+        Assertions.assertTrue(secondPage.get(0).getId() > secondPage.get(1).getId());
+    }
+
+    @Test
+    void testFindAllByOwnerProjection() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(1))
+                .end(LocalDateTime.now().plusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookingDto> bookings = bookingRepository.findAllByItem_OwnerAndStatusCurrentOrderByStartDesc(
+                owner.getId(), LocalDateTime.now(), PageRequest.ofSize(10));
+
+        Assertions.assertEquals(1, bookings.size());
+        Assertions.assertEquals(booking.getId(), bookings.get(0).getId());
+        Assertions.assertEquals(item.getId(), bookings.get(0).getItemId());
+        Assertions.assertEquals("item", bookings.get(0).getItem().getName());
+        Assertions.assertEquals(booker.getId(), bookings.get(0).getBooker().getId());
+        Assertions.assertEquals(Status.APPROVED, bookings.get(0).getStatus());
+        // проекция не загружает сущности в контекст персистентности
+        Assertions.assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testUpdateStatusIfUnchanged() {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner.getId())
+                .build());
+        Booking booking = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        entityManager.flush();
+
+        // бронь отклонена после чтения в статусе WAITING - подтверждение не должно её изменить
+        Assertions.assertEquals(1, bookingRepository
+                .updateStatusIfUnchanged(List.of(booking.getId()), Status.WAITING, Status.REJECTED));
+        Assertions.assertEquals(0, bookingRepository
+                .updateStatusIfUnchanged(List.of(booking.getId()), Status.WAITING, Status.APPROVED));
+        Assertions.assertEquals(Status.REJECTED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -9,8 +10,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingDto;
+import ru.practicum.shareit.booking.model.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingVersion;
+import ru.practicum.shareit.booking.model.BookingApprovalResult;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidatorExceptions;
 import ru.practicum.shareit.item.model.item.Item;
@@ -27,9 +33,16 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(
+        properties = {"shareit.users.cache.maximum-size=0", "shareit.bookings.overlap.index.enabled=false"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class BookingServiceImplTest {
     @Autowired
@@ -44,6 +57,12 @@ class BookingServiceImplTest {
     @MockBean
     private final ItemRepository itemRepository;
 
+    @BeforeEach
+    void mockUserExists() {
+        when(userRepository.existsById(anyLong()))
+                .thenAnswer(invocation -> userRepository.findById(invocation.getArgument(0)).isPresent());
+    }
+
     @Test
     void testAddNewBooking() {
         LocalDateTime start = LocalDateTime.now().plusDays(1);
@@ -94,6 +113,50 @@ class BookingServiceImplTest {
         assertThat(createdBookingDto, is(notNullValue()));
     }
 
+    @Test
+    void testThrowOverlappingBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+
+        BookingDto bookingDto = BookingDto.builder()
+                .start(start)
+                .end(end)
+                .itemId(1L)
+                .build();
+
+        Item item = Item.builder()
+                .id(1L)
+                .owner(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .build();
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(User.builder().id(3L).name("user3").email("user3@mail.com").build()));
+        when(bookingRepository.existsOverlappingBooking(eq(1L), eq(start), eq(end), any(), eq(0L)))
+                .thenReturn(true);
+
+        DuplicateException exception = Assertions.assertThrows(DuplicateException.class,
+                () -> bookingService.addBooking(3L, bookingDto));
+        assertThat(exception.getMessage(), is("Вещь уже забронирована на это время"));
+    }
+
+    @Test
+    void testGetBookingETag() {
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(User.builder().id(3L).name("user3").email("user3@mail.com").build()));
+        when(userRepository.findById(4L))
+                .thenReturn(Optional.of(User.builder().id(4L).name("user4").email("user4@mail.com").build()));
+        when(bookingRepository.findVersionById(1L))
+                .thenReturn(Optional.of(new BookingVersion(1L, 3L, 1L, 2L, 5L)));
+
+        assertThat(bookingService.getBookingETag(1L, 3L), is("\"booking-1-2-5\""));
+        Assertions.assertThrows(NotFoundException.class, () -> bookingService.getBookingETag(1L, 4L));
+        Assertions.assertThrows(NotFoundException.class, () -> bookingService.getBookingETag(2L, 3L));
+    }
+
     @Test
     void testThrowItemNotFoundException() {
         LocalDateTime start = LocalDateTime.now().plusDays(1);
@@ -350,6 +413,71 @@ class BookingServiceImplTest {
         Assertions.assertEquals(approveBookingDto.getStatus(), Status.REJECTED);
     }
 
+    @Test
+    void testSetApproveAll() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(User.builder().id(1L).name("user1").email("user1@mail.com").build()));
+        User booker = User.builder().id(3L).name("user3").email("user3@mail.com").build();
+        Item ownItem = Item.builder().id(1L).owner(1L).name("name").available(true).build();
+        Item otherItem = Item.builder().id(2L).owner(2L).name("name").available(true).build();
+
+        List<Booking> bookings = List.of(
+                new Booking(1L, start, start.plusDays(1), ownItem, booker, Status.WAITING, 0L),
+                new Booking(2L, start, start.plusDays(1), otherItem, booker, Status.WAITING, 0L),
+                new Booking(3L, start, start.plusDays(1), ownItem, booker, Status.APPROVED, 0L),
+                new Booking(4L, start.plusDays(2), start.plusDays(3), ownItem, booker, Status.WAITING, 0L));
+        when(bookingRepository.findAllWithItemByIdIn(List.of(1L, 2L, 3L, 4L, 5L)))
+                .thenReturn(bookings);
+        when(bookingRepository.updateStatusIfUnchanged(List.of(1L, 4L), Status.WAITING, Status.APPROVED))
+                .thenReturn(2);
+
+        List<BookingApprovalResult> results = bookingService.setApproveAll(1L, List.of(1L, 2L, 3L, 4L, 5L), true);
+
+        assertThat(results, is(List.of(
+                BookingApprovalResult.success(1L, Status.APPROVED),
+                BookingApprovalResult.failure(2L,
+                        "Пользователь не является владельцем вещи, в изменении статуса отказано"),
+                BookingApprovalResult.failure(3L, "Аренда уже подтверждена!"),
+                BookingApprovalResult.success(4L, Status.APPROVED),
+                BookingApprovalResult.failure(5L, "Аренда с ИД 5 не найден."))));
+        assertThat(bookings.get(0).getStatus(), is(Status.APPROVED));
+
+        // бронь 4 отклонена параллельным запросом после чтения - UPDATE её не меняет
+        when(bookingRepository.updateStatusIfUnchanged(List.of(1L, 4L), Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
+        bookings.get(0).setStatus(Status.WAITING);
+        bookings.get(3).setStatus(Status.WAITING);
+        Assertions.assertThrows(ConflictException.class,
+                () -> bookingService.setApproveAll(1L, List.of(1L, 2L, 3L, 4L, 5L), false));
+    }
+
+    @Test
+    void testThrowRejectedBookingApprove() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(User.builder().id(1L).name("user1").email("user1@mail.com").build()));
+        User booker = User.builder().id(3L).name("user3").email("user3@mail.com").build();
+        Item item = Item.builder().id(1L).owner(1L).name("name").available(true).build();
+        Booking rejected = new Booking(1L, start, start.plusDays(1), item, booker, Status.REJECTED, 1L);
+        Booking canceled = new Booking(2L, start, start.plusDays(1), item, booker, Status.CANCELED, 1L);
+        when(bookingRepository.findById(1L))
+                .thenReturn(Optional.of(rejected));
+        when(bookingRepository.findAllWithItemByIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(rejected, canceled));
+
+        ValidatorExceptions validatorExceptions = Assertions.assertThrows(ValidatorExceptions.class,
+                () -> bookingService.setApprove(1L, 1L, true));
+        assertThat(validatorExceptions.getMessage(), is("Аренда уже отклонена!"));
+
+        assertThat(bookingService.setApproveAll(1L, List.of(1L, 2L), true), is(List.of(
+                BookingApprovalResult.failure(1L, "Аренда уже отклонена!"),
+                BookingApprovalResult.failure(2L, "Аренда отменена, статус не может быть изменён!"))));
+        assertThat(rejected.getStatus(), is(Status.REJECTED));
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).updateStatusIfUnchanged(anyCollection(), any(), any());
+    }
+
     @Test
     void testThrowBookingNotFoundException() {
         when(bookingRepository.findById(1L))
@@ -454,7 +582,7 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(booking));
 
         when(bookingRepository.findAllByBooker_IdOrderByStartDesc(any(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking)));
         List<BookingDto> BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByUserIdAndState(3L, "ALL", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -470,7 +598,7 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
         when(bookingRepository.findAllByBooker_IdAndStatusCurrentOrderByStartDesc(any(), any(), any()))
-                .thenReturn(List.of(booking4));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking4)));
         BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByUserIdAndState(3L, "CURRENT", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -486,7 +614,7 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
         when(bookingRepository.findAllByBooker_IdAndStartIsAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(List.of(booking3));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking3)));
         BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByUserIdAndState(3L, "FUTURE", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -502,7 +630,7 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
         when(bookingRepository.findAllByBooker_IdAndEndIsBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(List.of(booking2));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking2)));
         BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByUserIdAndState(3L, "PAST", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -526,11 +654,11 @@ class BookingServiceImplTest {
                             Status status = invocation.getArgument(1, Status.class);
                             if (status.equals(Status.WAITING) && userId.equals(3L)) {
                                 booking5.setStatus(Status.WAITING);
-                                return List.of(booking5);
+                                return BookingMapper.mapToBookingDto(List.of(booking5));
                             }
                             if (status.equals(Status.REJECTED) && userId.equals(3L)) {
                                 booking5.setStatus(Status.REJECTED);
-                                return List.of(booking5);
+                                return BookingMapper.mapToBookingDto(List.of(booking5));
                             }
                             return Collections.emptyList();
                         }
@@ -603,7 +731,7 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(booking));
 
         when(bookingRepository.findAllByItem_OwnerOrderByStartDesc(any(), any()))
-                .thenReturn(List.of(booking));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking)));
         List<BookingDto> BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByOwnerIdAndState(1L, "ALL", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -619,7 +747,7 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
         when(bookingRepository.findAllByItem_OwnerAndStatusCurrentOrderByStartDesc(any(), any(), any()))
-                .thenReturn(List.of(booking4));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking4)));
         BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByOwnerIdAndState(1L, "CURRENT", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -635,7 +763,7 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
         when(bookingRepository.findAllByItem_OwnerAndStartIsAfterOrderByStartDesc(any(), any(), any()))
-                .thenReturn(List.of(booking3));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking3)));
         BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByOwnerIdAndState(1L, "FUTURE", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -651,7 +779,7 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
         when(bookingRepository.findAllByItem_OwnerAndEndIsBeforeOrderByStartDesc(any(), any(), any()))
-                .thenReturn(List.of(booking2));
+                .thenReturn(BookingMapper.mapToBookingDto(List.of(booking2)));
         BookingDtoList = (List<BookingDto>) bookingService
                 .findBookingsByOwnerIdAndState(1L, "PAST", 0, 10);
         Assertions.assertFalse(BookingDtoList.isEmpty());
@@ -674,11 +802,11 @@ class BookingServiceImplTest {
                             Status status = invocation.getArgument(1, Status.class);
                             if (status.equals(Status.WAITING) && userId.equals(1L)) {
                                 booking5.setStatus(Status.WAITING);
-                                return List.of(booking5);
+                                return BookingMapper.mapToBookingDto(List.of(booking5));
                             }
                             if (status.equals(Status.REJECTED) && userId.equals(1L)) {
                                 booking5.setStatus(Status.REJECTED);
-                                return List.of(booking5);
+                                return BookingMapper.mapToBookingDto(List.of(booking5));
                             }
                             return Collections.emptyList();
                         }
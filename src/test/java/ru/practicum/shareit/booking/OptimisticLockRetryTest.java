@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.booking.service.OptimisticLockRetry;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+class OptimisticLockRetryTest {
+    private final OptimisticLockRetry optimisticLockRetry =
+            new OptimisticLockRetry(3, Duration.ofMillis(1), Duration.ofMillis(4));
+
+    @Test
+    void testRetryUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = optimisticLockRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Booking", 1L);
+            }
+            return "ok";
+        });
+
+        assertThat(result, is("ok"));
+        assertThat(attempts.get(), is(3));
+    }
+
+    @Test
+    void testThrowConflictWhenAttemptsExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Assertions.assertThrows(ConflictException.class, () -> optimisticLockRetry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Booking", 1L);
+        }));
+        assertThat(attempts.get(), is(3));
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import ru.practicum.shareit.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightTest {
+    private static final int THREADS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("item", true, meterRegistry);
+
+    @Test
+    void testConcurrentLoadsAreCollapsed() throws Exception {
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = runConcurrently(() -> singleFlight.load(1L, () -> {
+            loaderCalls.incrementAndGet();
+            await(release);
+            return "Дрель";
+        }));
+
+        awaitCollapsed(THREADS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            Assertions.assertEquals("Дрель", result.get(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertEquals(1, loaderCalls.get());
+        Assertions.assertEquals(1.0, meterRegistry.get("shareit.single.flight.loads").tag("name", "item")
+                .counter().count());
+
+        // после завершения загрузки результат не хранится
+        Assertions.assertEquals("Отвёртка", singleFlight.load(1L, () -> "Отвёртка"));
+    }
+
+    @Test
+    void testWaitersReceiveLoaderException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = runConcurrently(() -> singleFlight.load(1L, () -> {
+            await(release);
+            throw new NotFoundException("Вещь с ИД 1 не найден.");
+        }));
+
+        awaitCollapsed(THREADS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+                    () -> result.get(5, TimeUnit.SECONDS));
+            Assertions.assertInstanceOf(NotFoundException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void testDisabled() {
+        SingleFlight<Long, String> disabled = new SingleFlight<>("user", false, meterRegistry);
+
+        Assertions.assertEquals("Дрель", disabled.load(1L, () -> "Дрель"));
+        Assertions.assertEquals(0.0, meterRegistry.get("shareit.single.flight.loads").tag("name", "user")
+                .counter().count());
+    }
+
+    private List<Future<String>> runConcurrently(Callable<String> task) {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(task));
+        }
+        executor.shutdown();
+
+        return results;
+    }
+
+    private void awaitCollapsed(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("shareit.single.flight.collapsed").counter().count() < expected) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Запросы не дождались общей загрузки");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.common.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.model.item.Item;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+class LogPayloadTest {
+
+    @Test
+    void testIds() {
+        Assertions.assertEquals("0 шт., ИД: []", LogPayload.ids(List.<Long>of(), id -> id).toString());
+        Assertions.assertEquals("3 шт., ИД: [1, 2, 3]", LogPayload.ids(List.of(1L, 2L, 3L), id -> id).toString());
+
+        List<Long> ids = LongStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+        Assertions.assertEquals("25 шт., ИД: [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, ...]",
+                LogPayload.ids(ids, id -> id).toString());
+    }
+
+    @Test
+    void testCapped() {
+        Assertions.assertEquals("текст", LogPayload.capped("текст").toString());
+        Assertions.assertEquals("null", LogPayload.capped(null).toString());
+
+        String text = "а".repeat(LogPayload.MAX_LENGTH + 10);
+        Assertions.assertEquals(text.substring(0, LogPayload.MAX_LENGTH) + "... (310 символов)",
+                LogPayload.capped(text).toString());
+    }
+
+    @Test
+    void testEntityToStringContainsOnlyRelatedIds() {
+        User user = new User(2L, "booker", "booker@user.com", 0L);
+        ItemRequest request = new ItemRequest(3L, "Нужна дрель", user, null);
+        Item item = new Item(1L, 5L, "Дрель", "Простая дрель", true, request, 0L);
+        Booking booking = new Booking(4L, null, null, item, user, Status.WAITING, 0L);
+
+        String text = booking.toString();
+        Assertions.assertTrue(text.contains("itemId=1"), text);
+        Assertions.assertTrue(text.contains("bookerId=2"), text);
+        Assertions.assertFalse(text.contains("Дрель"), text);
+        Assertions.assertFalse(text.contains("booker@user.com"), text);
+        Assertions.assertTrue(item.toString().contains("requestId=3"), item.toString());
+        Assertions.assertFalse(item.toString().contains("Нужна дрель"), item.toString());
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.common.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Assertions;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.classic.LoggerContext;
+
+import java.util.Map;
+
+class RateLimitingTurboFilterTest {
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final Logger logger = loggerContext.getLogger("ru.practicum.shareit.test");
+    private final Logger auditLogger = loggerContext.getLogger("ru.practicum.shareit.audit");
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        logger.setLevel(Level.TRACE);
+        auditLogger.setLevel(Level.DEBUG);
+        filter.setEventsPerSecond(3);
+        filter.setLimitedLoggers("ru.practicum.shareit.test, ru.practicum.shareit.other");
+        filter.setSummaryPeriodSeconds(0);
+        filter.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.stop();
+    }
+
+    @Test
+    void testLimitsEachCallSite() {
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (decide(logger, Level.DEBUG, "сообщение {}") == FilterReply.NEUTRAL) {
+                allowed++;
+            }
+        }
+
+        // граница секунды может прийтись на середину цикла
+        Assertions.assertTrue(allowed >= 3 && allowed <= 6, "пропущено сообщений: " + allowed);
+        Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.DEBUG, "другое сообщение {}"));
+
+        Map<String, Long> suppressed = filter.drainSuppressed();
+        Assertions.assertEquals(10L - allowed, suppressed.get("ru.practicum.shareit.test [сообщение {}]"));
+        Assertions.assertTrue(filter.drainSuppressed().isEmpty());
+    }
+
+    @Test
+    void testLimitsInfoOnlyForListedLoggers() {
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(auditLogger, Level.INFO, "аудит {}"));
+            if (decide(logger, Level.INFO, "сообщение {}") == FilterReply.NEUTRAL) {
+                allowed++;
+            }
+        }
+
+        Assertions.assertTrue(allowed >= 3 && allowed <= 6, "пропущено сообщений: " + allowed);
+        Assertions.assertEquals(1, filter.drainSuppressed().size());
+    }
+
+    @Test
+    void testDoesNotLimitWarningsAndDisabledLevels() {
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN, "предупреждение {}"));
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(auditLogger, Level.TRACE, "трассировка {}"));
+        }
+
+        filter.setEventsPerSecond(0);
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(FilterReply.NEUTRAL, decide(logger, Level.DEBUG, "сообщение {}"));
+        }
+        Assertions.assertTrue(filter.drainSuppressed().isEmpty());
+    }
+
+    private FilterReply decide(Logger target, Level level, String format) {
+        return filter.decide(null, target, level, format, new Object[]{1}, null);
+    }
+}
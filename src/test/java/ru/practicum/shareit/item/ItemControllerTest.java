@@ -13,6 +13,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.comment.CommentDto;
 import ru.practicum.shareit.item.model.item.*;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.service.ItemImportService;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -35,6 +36,8 @@ class ItemControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ItemServiceImpl itemService;
+    @MockBean
+    private ItemImportService itemImportService;
 
     private static final String USER_REQUEST_HEADER = "X-Sharer-User-id";
 
@@ -68,6 +71,32 @@ class ItemControllerTest {
         verify(itemService, Mockito.times(1)).addItem(anyLong(), any());
     }
 
+    @Test
+    void testImportItems() throws Exception {
+        ItemImportResult result = new ItemImportResult();
+        result.setTotal(2);
+        result.setImported(1);
+        result.addError(2, "Название не может быть пустым");
+        when(itemImportService.importItems(anyLong(), any()))
+                .thenReturn(result);
+
+        mockMvc.perform(post("/items/bulk")
+                        .content(mapper.writeValueAsString(itemDto) + "\n{\"available\": true}\n")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(MockMvcResultHandlers.print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(2)))
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(2)))
+                .andExpect(jsonPath("$.errors[0].error", is("Название не может быть пустым")));
+
+        verify(itemImportService, Mockito.times(1)).importItems(eq(1L), any());
+    }
+
     @Test
     void testGetItems() throws Exception {
         ItemDto newItemDto = new ItemDto(
@@ -119,6 +148,29 @@ class ItemControllerTest {
         Mockito.verify(itemService, Mockito.times(1)).getItemByItemIdAndUserId(anyLong(), anyLong());
     }
 
+    @Test
+    void testGetItemByItemIdAndUserIdNotModified() throws Exception {
+        when(itemService.getItemETag(1L, 1L))
+                .thenReturn("\"item-1-0-0-null-null\"");
+        when(itemService.getItemByItemIdAndUserId(1L, 1L))
+                .thenReturn(itemDto);
+
+        mockMvc.perform(get("/items/1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"item-1-0-0-null-null\""));
+
+        mockMvc.perform(get("/items/1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .header("If-None-Match", "\"item-1-0-0-null-null\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        Mockito.verify(itemService, Mockito.times(1)).getItemByItemIdAndUserId(anyLong(), anyLong());
+    }
+
     @Test
     void testUpdateItem() throws Exception {
         itemDto.setName("Новая отвертка");
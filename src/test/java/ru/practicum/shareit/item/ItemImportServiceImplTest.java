@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Assertions;
+import ru.practicum.shareit.user.model.UserDto;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.request.model.ItemRequestDto;
+import ru.practicum.shareit.item.model.item.ItemImportResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.service.ItemImportServiceImpl;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+
+import java.io.InputStream;
+import java.io.IOException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.test.annotation.DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD;
+
+@DirtiesContext(classMode = AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@SpringBootTest(
+        properties = {"db.name=test", "shareit.items.import.batch-size=2"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemImportServiceImplTest {
+    private final ItemImportServiceImpl itemImportService;
+    private final ItemServiceImpl itemService;
+    private final UserServiceImpl userService;
+    private final ItemRequestServiceImpl itemRequestService;
+
+    @BeforeEach
+    void addData() {
+        UserDto userDto = new UserDto();
+        userDto.setName("user");
+        userDto.setEmail("user@user.com");
+        userService.addUser(userDto);
+    }
+
+    @Test
+    void testImportNdjsonWithInvalidLines() throws IOException {
+        String body = "{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true}\n"
+                + "\n"
+                + "{\"name\": \"\", \"description\": \"Без названия\", \"available\": true}\n"
+                + "{\"name\": \"Пила\", \"description\": \n"
+                + "{\"name\": \"Отвёртка\", \"description\": \"Простая отвертка\", \"available\": true}\n"
+                + "{\"name\": \"Молоток\", \"description\": \"Простой молоток\", \"available\": false}";
+
+        ItemImportResult result = itemImportService.importItems(1L, toStream(body));
+
+        assertThat(result.getTotal(), equalTo(5L));
+        assertThat(result.getImported(), equalTo(3L));
+        assertThat(result.getFailed(), equalTo(2L));
+        assertThat(result.getErrors(), hasSize(2));
+        assertThat(result.getErrors().get(0).getLine(), equalTo(3L));
+        assertThat(result.getErrors().get(0).getError(), equalTo("Название не может быть пустым"));
+        assertThat(result.getErrors().get(1).getLine(), equalTo(4L));
+        assertThat(itemService.getItems(1L, 0, 10), hasSize(3));
+        assertThat(itemService.searchItems("простая", 0, 10), hasSize(2));
+    }
+
+    @Test
+    void testImportJsonArrayWithRequests() throws IOException {
+        ItemRequestDto itemRequestDto = new ItemRequestDto();
+        itemRequestDto.setDescription("Нужна дрель");
+        itemRequestService.addItemRequest(1L, itemRequestDto);
+
+        String body = " [{\"name\": \"Дрель\", \"description\": \"Простая дрель\", \"available\": true, \"requestId\": 1},"
+                + "{\"name\": \"Дрель 2\", \"description\": \"Ударная дрель\", \"available\": true, \"requestId\": 1},"
+                + "{\"name\": \"Пила\", \"description\": \"Простая пила\", \"available\": \"да\"},"
+                + "{\"name\": \"Отвёртка\", \"description\": \"Простая отвертка\", \"available\": true, \"requestId\": 99}]";
+
+        ItemImportResult result = itemImportService.importItems(1L, toStream(body));
+
+        assertThat(result.getTotal(), equalTo(4L));
+        assertThat(result.getImported(), equalTo(2L));
+        assertThat(result.getErrors(), hasSize(2));
+        assertThat(result.getErrors().get(0).getLine(), equalTo(3L));
+        assertThat(result.getErrors().get(1).getLine(), equalTo(4L));
+        assertThat(result.getErrors().get(1).getError(), equalTo("Запрос вещи с ИД 99 не найден."));
+        assertThat(itemRequestService.getItemRequestByUser(1L, 1L).getItems(), hasSize(2));
+    }
+
+    @Test
+    void testImportWithUnknownUser() {
+        Assertions.assertThrows(NotFoundException.class,
+                () -> itemImportService.importItems(2L, toStream("[]")));
+    }
+
+    private InputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,20 +1,27 @@
 package ru.practicum.shareit.item;
 
 import org.junit.jupiter.api.Test;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Assertions;
 import ru.practicum.shareit.item.model.item.Item;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.util.List;
+import java.util.ArrayList;
 
 @DataJpaTest
 class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    TestEntityManager em;
+
     @Test
     void testSearchAvailableByText() {
         Item item = Item.builder()
@@ -28,4 +35,23 @@ class ItemRepositoryTest {
         List<Item> items = itemRepository.searchByText("item", pageRequest);
         Assertions.assertTrue(items.get(0).getName().contains(item.getName()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSaveAllUsesJdbcBatches() {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(Item.builder().name("item" + i).description("description").available(true).build());
+        }
+        statistics.clear();
+
+        itemRepository.saveAll(items);
+        em.flush();
+
+        // hibernate.jdbc.batch_size=50: 120 строк - три пакета INSERT и пара запросов ИД из последовательности
+        // (блоки по 50), без пакетов было бы 120 запросов INSERT
+        Assertions.assertEquals(120, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 6);
+    }
+}
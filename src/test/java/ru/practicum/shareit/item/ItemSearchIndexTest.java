@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Assertions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.practicum.shareit.item.model.item.Item;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemSearchIndex itemSearchIndex = new ItemSearchIndex(itemRepository, meterRegistry);
+
+    @BeforeEach
+    void addData() {
+        ReflectionTestUtils.setField(itemSearchIndex, "enabled", true);
+        itemSearchIndex.put(makeItem(1L, "Дрель", "Простая дрель", true));
+        itemSearchIndex.put(makeItem(2L, "Отвёртка", "Аккумуляторная отвертка", true));
+        itemSearchIndex.put(makeItem(3L, "Дрель ударная", "Мощная", false));
+    }
+
+    @Test
+    void testSearchBySubstringIgnoringCase() {
+        Assertions.assertEquals(List.of(1L), itemSearchIndex.search("дРЕль"));
+        Assertions.assertEquals(List.of(2L), itemSearchIndex.search("кумулятор"));
+        Assertions.assertEquals(List.of(1L, 2L), itemSearchIndex.search("о"));
+        Assertions.assertTrue(itemSearchIndex.search("пила").isEmpty());
+    }
+
+    @Test
+    void testSearchDoesNotMatchAcrossNameAndDescription() {
+        Assertions.assertTrue(itemSearchIndex.search("ельпро").isEmpty());
+    }
+
+    @Test
+    void testPutAndRemove() {
+        itemSearchIndex.put(makeItem(1L, "Пила", "Ручная пила", true));
+        Assertions.assertTrue(itemSearchIndex.search("дрель").isEmpty());
+        Assertions.assertEquals(List.of(1L), itemSearchIndex.search("пила"));
+
+        itemSearchIndex.put(makeItem(3L, "Дрель ударная", "Мощная", true));
+        Assertions.assertEquals(List.of(3L), itemSearchIndex.search("дрель"));
+
+        itemSearchIndex.remove(3L);
+        Assertions.assertTrue(itemSearchIndex.search("дрель").isEmpty());
+    }
+
+    @Test
+    void testIsConsistent() {
+        when(itemRepository.searchIdsByText("дрель")).thenReturn(List.of(1L));
+        Assertions.assertTrue(itemSearchIndex.isConsistent("дрель"));
+
+        when(itemRepository.searchIdsByText("дрель")).thenReturn(List.of(1L, 3L));
+        Assertions.assertFalse(itemSearchIndex.isConsistent("дрель"));
+        Assertions.assertEquals(1.0, meterRegistry.get("shareit.items.search.index.mismatches").counter().count());
+    }
+
+    @Test
+    void testShouldVerify() {
+        Assertions.assertFalse(itemSearchIndex.shouldVerify());
+
+        ReflectionTestUtils.setField(itemSearchIndex, "verifyRate", 1.0);
+        Assertions.assertTrue(itemSearchIndex.shouldVerify());
+    }
+
+    private Item makeItem(Long id, String name, String description, Boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.item.model.item.Item;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.common.sql.DatabasePlatform;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+/**
+ * Схема и поиск вещей на PostgreSQL. Тест запускается только с адресом базы:
+ * mvn test -Dtest=ItemSearchPostgresqlTest -Dshareit.test.postgresql.url=jdbc:postgresql://localhost:5432/shareit
+ * (shareit.test.postgresql.username и .password - по умолчанию postgres без пароля). schema-postgresql.sql данные
+ * не удаляет, поэтому у каждого запуска свои адреса почты и слово для поиска.
+ */
+@EnabledIfSystemProperty(named = "shareit.test.postgresql.url", matches = ".+")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@SpringBootTest(
+        properties = {
+                "spring.datasource.driverClassName=org.postgresql.Driver",
+                "spring.datasource.url=${shareit.test.postgresql.url}",
+                "spring.datasource.username=${shareit.test.postgresql.username:postgres}",
+                "spring.datasource.password=${shareit.test.postgresql.password:}",
+                "spring.sql.init.schema-locations=classpath:schema-@@platform@@.sql",
+                "shareit.items.search.full-text.enabled=true"},
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ItemSearchPostgresqlTest {
+    private final String word = "дрель" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private SqlDataSourceScriptDatabaseInitializer initializer;
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private ItemServiceImpl itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void testSchemaCanBeAppliedAgain() {
+        assertThat(databasePlatform.isPostgresql(), is(true));
+        assertThat(initializer.initializeDatabase(), is(true));
+    }
+
+    @Test
+    void testFullTextSearchFindsSameItemsAsLike() {
+        Long ownerId = userService.addUser(new UserDto(null, "owner", word + "@mail.com")).getId();
+        Long byDescription = addItem(ownerId, "Ящик", "Внутри " + word + " и сверла", true);
+        Long byName = addItem(ownerId, "Дрель " + word, "Простая", true);
+        Long bySubstring = addItem(ownerId, "Перфоратор", "Лучше, чем " + word + "ударная", true);
+        addItem(ownerId, "Дрель " + word, "Сдана в ремонт", false);
+
+        List<Long> found = itemService.searchItems(word, 0, 10).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        List<Long> foundByLike = itemRepository.searchByText(word, PageRequest.of(0, 10)).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        assertThat(found, hasSize(3));
+        assertThat(found, containsInAnyOrder(foundByLike.toArray()));
+        assertThat(found, containsInAnyOrder(byDescription, byName, bySubstring));
+        // совпадение в названии весит больше совпадения в описании, подстрока слова в ранге не участвует
+        assertThat(found.get(0), is(byName));
+        assertThat(found.get(2), is(bySubstring));
+    }
+
+    private Long addItem(Long ownerId, String name, String description, boolean available) {
+        return itemService.addItem(ownerId, ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .build()).getId();
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,10 +11,13 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.model.BookingDto;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidatorExceptions;
 import ru.practicum.shareit.item.model.comment.CommentDto;
 import ru.practicum.shareit.item.model.item.Item;
 import ru.practicum.shareit.item.model.item.ItemDto;
 import ru.practicum.shareit.item.model.item.ItemMapper;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.user.model.UserDto;
 import ru.practicum.shareit.user.service.UserServiceImpl;
@@ -21,6 +26,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
@@ -41,6 +47,8 @@ public class ItemServiceImplTest {
     private final ItemServiceImpl itemService;
     private final UserServiceImpl userService;
     private final BookingServiceImpl bookingService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final MeterRegistry meterRegistry;
 
     private final UserDto firstUserDto = makeUserDto("user", "user@user.com");
     private final UserDto secondUserDto = makeUserDto("user2", "user2@user.com");
@@ -96,6 +104,38 @@ public class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void testGetItemsWithBookingsAndComments() {
+        Item item = ItemMapper.mapToItem(firstItemDto, 1L);
+        em.persist(item);
+        em.persist(ItemMapper.mapToItem(secondItemDto, 1L));
+        em.flush();
+
+        userService.addUser(secondUserDto);
+        bookingService.addBooking(2L, bookingDto);
+        bookingService.setApprove(1L, 1L, true);
+        bookingService.addBooking(2L, makeBookingDto(
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                1L,
+                new BookingDto.Item(1L, "Дрель"),
+                new BookingDto.User(2L),
+                Status.WAITING));
+        bookingService.setApprove(2L, 1L, true);
+        itemService.addComment(2L, 1L, commentDto);
+
+        List<ItemDto> targetItems = List.copyOf(itemService.getItems(1L, 0, 10));
+
+        assertThat(targetItems, hasSize(2));
+        assertThat(targetItems.get(0).getLastBooking().getId(), equalTo(1L));
+        assertThat(targetItems.get(0).getNextBooking().getId(), equalTo(2L));
+        assertThat(targetItems.get(0).getNextBooking().getBookerId(), equalTo(2L));
+        assertThat(targetItems.get(0).getComments(), hasSize(1));
+        assertThat(targetItems.get(1).getLastBooking(), nullValue());
+        assertThat(targetItems.get(1).getNextBooking(), nullValue());
+        assertThat(targetItems.get(1).getComments(), empty());
+    }
+
     @Test
     void testGetItemByItemIdAndUserId() {
         Item item = ItemMapper.mapToItem(firstItemDto, 1L);
@@ -107,6 +147,33 @@ public class ItemServiceImplTest {
         assertThat(targetItem.getName(), equalTo(firstItemDto.getName()));
     }
 
+    @Test
+    void testGetItemByItemIdAndUserIdFromCache() {
+        Item item = ItemMapper.mapToItem(firstItemDto, 1L);
+        em.persist(item);
+        em.flush();
+        userService.addUser(secondUserDto);
+        bookingService.addBooking(2L, makeBookingDto(
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                1L,
+                new BookingDto.Item(1L, "Дрель"),
+                new BookingDto.User(2L),
+                Status.WAITING));
+
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 1L).getNextBooking(), nullValue());
+
+        bookingService.setApprove(1L, 1L, true);
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 1L).getNextBooking().getId(), equalTo(1L));
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 2L).getNextBooking(), nullValue());
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 1L).getNextBooking().getId(), equalTo(1L));
+
+        itemService.updateItem(1L, 1L, makeItemDto("Дрель ударная", null, null));
+        ItemDto targetItem = itemService.getItemByItemIdAndUserId(1L, 2L);
+        assertThat(targetItem.getName(), equalTo("Дрель ударная"));
+        assertThat(targetItem.getNextBooking(), nullValue());
+    }
+
     @Test
     void testUpdateItem() {
         Item item = ItemMapper.mapToItem(firstItemDto, 1L);
@@ -137,16 +204,35 @@ public class ItemServiceImplTest {
         List<ItemDto> itemDtoList = List.of(firstItemDto, secondItemDto);
 
         for (ItemDto itemDto : itemDtoList) {
-            Item entity = ItemMapper.mapToItem(itemDto, 1L);
-            em.persist(entity);
+            itemService.addItem(1L, itemDto);
         }
-        em.flush();
 
         Collection<ItemDto> itemDtos = itemService.searchItems("Дрель", 0, 10);
         assertThat(itemDtos, hasSize(1));
 
         itemDtos = itemService.searchItems("Простая", 0, 10);
         assertThat(itemDtos, hasSize(2));
+
+        itemService.updateItem(1L, 2L, makeItemDto(null, null, false));
+        itemDtos = itemService.searchItems("Простая", 0, 10);
+        assertThat(itemDtos, hasSize(1));
+
+        itemService.deleteItem(1L);
+        itemDtos = itemService.searchItems("Простая", 0, 10);
+        assertThat(itemDtos, empty());
+    }
+
+    @Test
+    void testSearchItemsFallsBackToDatabaseWhenIndexIsInconsistent() {
+        itemService.addItem(1L, firstItemDto);
+        itemSearchIndex.remove(1L);
+
+        // в тестах сверяется каждый поиск (shareit.items.search.index.verify-rate=1)
+        List<ItemDto> itemDtos = itemService.searchItems("Дрель", 0, 10);
+
+        assertThat(itemDtos, hasSize(1));
+        assertThat(itemDtos.get(0).getName(), is("Дрель"));
+        assertThat(meterRegistry.get("shareit.items.search.index.mismatches").counter().count(), is(1.0));
     }
 
     @Test
@@ -166,7 +252,77 @@ public class ItemServiceImplTest {
         assertThat(targetItem.getComments().get(0).getId(), notNullValue());
         assertThat(targetItem.getComments().get(0).getText(), equalTo(commentDto.getText()));
         assertThat(targetItem.getComments().get(0).getAuthorName(), equalTo(commentDto.getAuthorName()));
-        assertThat(targetItem.getComments().get(0).getCreated(), equalTo(commentDto.getCreated()));
+        // комментарии читаются из базы, дата округлена до точности столбца - микросекунд
+        assertThat(Duration.between(commentDto.getCreated(), targetItem.getComments().get(0).getCreated())
+                .abs().toNanos(), lessThan(1000L));
+    }
+
+    @Test
+    void testCommentAuthorRenameEvictsItemView() {
+        Item item = ItemMapper.mapToItem(firstItemDto, 1L);
+        em.persist(item);
+        em.flush();
+
+        userService.addUser(secondUserDto);
+        bookingService.addBooking(2L, bookingDto);
+        bookingService.setApprove(1L, 1L, true);
+        itemService.addComment(2L, 1L, commentDto);
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 1L).getComments().get(0).getAuthorName(),
+                equalTo("user2"));
+
+        userService.updateUser(2L, makeUserDto("user3", null));
+        assertThat(itemService.getItemByItemIdAndUserId(1L, 1L).getComments().get(0).getAuthorName(),
+                equalTo("user3"));
+    }
+
+    @Test
+    void testGetItemETag() {
+        Item item = ItemMapper.mapToItem(firstItemDto, 1L);
+        em.persist(item);
+        em.flush();
+
+        userService.addUser(secondUserDto);
+        bookingService.addBooking(2L, bookingDto);
+        String ownerETag = itemService.getItemETag(1L, 1L);
+        String bookerETag = itemService.getItemETag(1L, 2L);
+        assertThat(itemService.getItemETag(1L, 1L), equalTo(ownerETag));
+        assertThat(bookerETag, not(equalTo(ownerETag)));
+
+        // последняя аренда видна только владельцу
+        bookingService.setApprove(1L, 1L, true);
+        assertThat(itemService.getItemETag(1L, 1L), not(equalTo(ownerETag)));
+        assertThat(itemService.getItemETag(1L, 2L), equalTo(bookerETag));
+
+        ownerETag = itemService.getItemETag(1L, 1L);
+        itemService.addComment(2L, 1L, commentDto);
+        assertThat(itemService.getItemETag(1L, 1L), not(equalTo(ownerETag)));
+        assertThat(itemService.getItemETag(1L, 2L), not(equalTo(bookerETag)));
+
+        bookerETag = itemService.getItemETag(1L, 2L);
+        userService.updateUser(2L, makeUserDto("user3", null));
+        assertThat(itemService.getItemETag(1L, 2L), not(equalTo(bookerETag)));
+
+        bookerETag = itemService.getItemETag(1L, 2L);
+        itemService.updateItem(1L, 1L, makeItemDto("Дрель ударная", null, null));
+        assertThat(itemService.getItemETag(1L, 2L), not(equalTo(bookerETag)));
+
+        Assertions.assertThrows(NotFoundException.class, () -> itemService.getItemETag(99L, 1L));
+        Assertions.assertThrows(NotFoundException.class, () -> itemService.getItemETag(1L, 99L));
+    }
+
+    @Test
+    void testAddCommentWithoutFinishedBooking() {
+        Item item = ItemMapper.mapToItem(firstItemDto, 1L);
+        em.persist(item);
+        em.flush();
+
+        userService.addUser(secondUserDto);
+        bookingService.addBooking(2L, bookingDto);
+
+        Assertions.assertThrows(ValidatorExceptions.class, () -> itemService.addComment(2L, 1L, commentDto));
+
+        bookingService.setApprove(1L, 1L, true);
+        Assertions.assertThrows(ValidatorExceptions.class, () -> itemService.addComment(1L, 1L, commentDto));
     }
 
     private ItemDto makeItemDto(String name, String description, Boolean available) {
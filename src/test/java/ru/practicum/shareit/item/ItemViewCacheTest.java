@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import ru.practicum.shareit.item.model.item.ItemDto;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.List;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+class ItemViewCacheTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemViewCache itemViewCache = new ItemViewCache(100, Duration.ofMinutes(5), provider(meterRegistry));
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void testPutAndEvict() {
+        itemViewCache.putView(makeView(1L), itemViewCache.stamp(1L));
+        Assertions.assertTrue(itemViewCache.getView(1L).isPresent());
+        Assertions.assertTrue(itemViewCache.getView(2L).isEmpty());
+
+        itemViewCache.evict(1L);
+        Assertions.assertTrue(itemViewCache.getView(1L).isEmpty());
+
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "item-views", "result", "hit").functionCounter().count());
+        Assertions.assertEquals(2.0, meterRegistry.get("cache.gets")
+                .tags("cache", "item-views", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testLoadStartedBeforeEvictionIsNotCached() {
+        long stamp = itemViewCache.stamp(1L);
+        itemViewCache.evictBookings(1L);
+        itemViewCache.putView(makeView(1L), stamp);
+        itemViewCache.putOwnerBookings(1L, new ItemViewCache.OwnerBookings(null, null, null), stamp);
+
+        Assertions.assertTrue(itemViewCache.getView(1L).isEmpty());
+        Assertions.assertTrue(itemViewCache.getOwnerBookings(1L, now).isEmpty());
+    }
+
+    @Test
+    void testOwnerBookingsExpireWhenNextBookingEnds() {
+        ItemViewCache.OwnerBookings ownerBookings = new ItemViewCache.OwnerBookings(
+                new ItemDto.ItemBooking(1L, 2L), new ItemDto.ItemBooking(2L, 2L), now.plusHours(1));
+        itemViewCache.putOwnerBookings(1L, ownerBookings, itemViewCache.stamp(1L));
+        itemViewCache.putView(makeView(1L), itemViewCache.stamp(1L));
+
+        Assertions.assertTrue(itemViewCache.getOwnerBookings(1L, now).isPresent());
+        Assertions.assertTrue(itemViewCache.getOwnerBookings(1L, now.plusHours(1)).isEmpty());
+        Assertions.assertTrue(itemViewCache.getView(1L).isPresent());
+
+        itemViewCache.putOwnerBookings(1L, ownerBookings, itemViewCache.stamp(1L));
+        itemViewCache.evictBookings(1L);
+        Assertions.assertTrue(itemViewCache.getOwnerBookings(1L, now).isEmpty());
+        Assertions.assertTrue(itemViewCache.getView(1L).isPresent());
+    }
+
+    @Test
+    void testEvictViews() {
+        long stamp = itemViewCache.stamp(2L);
+        itemViewCache.putView(makeView(1L), itemViewCache.stamp(1L));
+        itemViewCache.evictViews();
+        itemViewCache.putView(makeView(2L), stamp);
+
+        Assertions.assertTrue(itemViewCache.getView(1L).isEmpty());
+        Assertions.assertTrue(itemViewCache.getView(2L).isEmpty());
+    }
+
+    @Test
+    void testViewCopyHasNoOwnerBookings() {
+        ItemViewCache.ItemView itemView = makeView(1L);
+        itemView.toItemDto().setNextBooking(new ItemDto.ItemBooking(1L, 2L));
+
+        Assertions.assertNull(itemView.toItemDto().getNextBooking());
+        Assertions.assertEquals(List.of(), itemView.toItemDto().getComments());
+    }
+
+    @Test
+    void testDisabled() {
+        ItemViewCache disabledCache = new ItemViewCache(0, Duration.ofMinutes(5), provider(null));
+        disabledCache.putView(makeView(1L), disabledCache.stamp(1L));
+
+        Assertions.assertTrue(disabledCache.getView(1L).isEmpty());
+    }
+
+    private ItemViewCache.ItemView makeView(Long itemId) {
+        return new ItemViewCache.ItemView(1L, ItemDto.builder()
+                .id(itemId)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .comments(List.of())
+                .build());
+    }
+
+    private static ObjectProvider<MeterRegistry> provider(MeterRegistry meterRegistry) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        if (meterRegistry != null) {
+            beanFactory.addBean("meterRegistry", meterRegistry);
+        }
+        return beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+}
@@ -23,6 +23,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,7 +41,7 @@ public class ItemRequestControllerTest {
 
     private static final String USER_REQUEST_HEADER = "X-Sharer-User-id";
 
-    private final User user = new User(1L, "user", "user@user.com");
+    private final User user = new User(1L, "user", "user@user.com", 0L);
 
     private final ItemDto itemDto = new ItemDto(
             1L, "Дрель", "Простая дрель", true, null,
@@ -166,4 +168,27 @@ public class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.items[0].available",
                         is(itemRequestDto.getItems().get(0).getAvailable())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetRequestNotModified() throws Exception {
+        when(itemRequestService.getItemRequestETag(1L, 1L))
+                .thenReturn("\"request-1-0-0-null-null\"");
+        when(itemRequestService.getItemRequestByUser(1L, 1L))
+                .thenReturn(itemRequestDto);
+
+        mockMvc.perform(get("/requests/1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"request-1-0-0-null-null\""));
+
+        mockMvc.perform(get("/requests/1")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .header("If-None-Match", "\"request-1-0-0-null-null\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(itemRequestService, times(1)).getItemRequestByUser(anyLong(), anyLong());
+    }
+}
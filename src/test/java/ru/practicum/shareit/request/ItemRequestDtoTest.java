@@ -22,7 +22,7 @@ public class ItemRequestDtoTest {
         ItemRequestDto itemRequestDto = new ItemRequestDto(
                 1L,
                 "description",
-                new User(1L, "user", "user@mail.com"),
+                new User(1L, "user", "user@mail.com", 0L),
                 LocalDateTime.of(2022, 11, 11, 0, 0),
                 null);
 
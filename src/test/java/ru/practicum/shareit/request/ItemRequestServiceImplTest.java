@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -11,6 +12,7 @@ import ru.practicum.shareit.item.model.item.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.UserRepository;
@@ -27,9 +29,12 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@SpringBootTest(
+        properties = "shareit.users.cache.maximum-size=0",
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 public class ItemRequestServiceImplTest {
     @Autowired
@@ -44,6 +49,12 @@ public class ItemRequestServiceImplTest {
     @MockBean
     private final ItemRepository itemRepository;
 
+    @BeforeEach
+    void mockUserExists() {
+        when(userRepository.existsById(anyLong()))
+                .thenAnswer(invocation -> userRepository.findById(invocation.getArgument(0)).isPresent());
+    }
+
     @Test
     void testAddItemRequest() {
         LocalDateTime now = LocalDateTime.now();
@@ -173,6 +184,29 @@ public class ItemRequestServiceImplTest {
 
         itemRequestDtos = itemRequestService.getRequestsOtherUsers(1L, 0, 10);
         assertTrue(itemRequestDtos.get(0).getItems().isEmpty());
+
+        ItemRequest secondRequest = ItemRequest.builder()
+                .id(2L)
+                .description("description2")
+                .requestor(requestor)
+                .created(requestCreationDate)
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .request(secondRequest)
+                .build();
+
+        when(itemRequestRepository.findAllByRequestor_IdIsNotOrderByCreatedDesc(any(), any()))
+                .thenReturn(List.of(request, secondRequest));
+        when(itemRepository.findAllByRequest_IdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(item));
+
+        itemRequestDtos = itemRequestService.getRequestsOtherUsers(1L, 0, 10);
+        assertTrue(itemRequestDtos.get(0).getItems().isEmpty());
+        assertThat(itemRequestDtos.get(1).getItems().get(0).getId(), is(1L));
     }
 
     @Test
@@ -195,7 +229,7 @@ public class ItemRequestServiceImplTest {
                 .created(requestCreationDate)
                 .build();
 
-        when(itemRequestRepository.findById(request.getId()))
+        when(itemRequestRepository.findWithRequestorById(request.getId()))
                 .thenReturn(Optional.of(request));
 
         List<Item> items = Collections.emptyList();
@@ -240,4 +274,28 @@ public class ItemRequestServiceImplTest {
                 () -> itemRequestService.getItemRequestOrNotFound(1L));
         assertThat(invalidItemRequestIdException.getMessage(), is("Запрос вещи с ИД 1 не найден."));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetItemRequestETag() {
+        User requestor = User.builder()
+                .id(1L)
+                .name("name1")
+                .email("user1@email.com")
+                .build();
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(requestor));
+
+        when(itemRequestRepository.findVersionById(1L))
+                .thenReturn(Optional.of(new ItemRequestVersion(1L, 2L, 1L, 5L, 3L)));
+
+        assertThat(itemRequestService.getItemRequestETag(1L, 1L), is("\"request-1-2-1-5-3\""));
+
+        when(itemRequestRepository.findVersionById(2L))
+                .thenReturn(Optional.empty());
+
+        NotFoundException invalidItemRequestIdException = Assertions.assertThrows(NotFoundException.class,
+                () -> itemRequestService.getItemRequestETag(1L, 2L));
+        assertThat(invalidItemRequestIdException.getMessage(), is("Запрос вещи с ИД 2 не найден."));
+    }
+}
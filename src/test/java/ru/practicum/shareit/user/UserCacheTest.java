@@ -0,0 +1,38 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assertions;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserCache;
+
+import java.time.Duration;
+
+class UserCacheTest {
+    private final UserCache userCache = new UserCache(100, Duration.ofMinutes(10));
+
+    @Test
+    void testPutAndEvict() {
+        userCache.put(makeUser("user"), userCache.stamp(1L));
+        Assertions.assertEquals("user", userCache.get(1L).orElseThrow().getName());
+
+        userCache.evict(1L);
+        Assertions.assertTrue(userCache.get(1L).isEmpty());
+    }
+
+    @Test
+    void testLoadStartedBeforeEvictionIsNotCached() {
+        long stamp = userCache.stamp(1L);
+        userCache.evict(1L);
+        userCache.put(makeUser("user"), stamp);
+
+        Assertions.assertTrue(userCache.get(1L).isEmpty());
+    }
+
+    private User makeUser(String name) {
+        return User.builder()
+                .id(1L)
+                .name(name)
+                .email("user@user.com")
+                .build();
+    }
+}
@@ -13,13 +13,19 @@ import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidatorExceptions;
 import ru.practicum.shareit.user.model.UserDto;
+import ru.practicum.shareit.user.model.UserPage;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
@@ -71,6 +77,51 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[1].email", is("newUser@user.com")));
 
         Mockito.verify(userService, Mockito.times(1)).getUsers();
+        Mockito.verify(userService, Mockito.never()).getUsers(anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetAllUsersPaged() throws Exception {
+        when(userService.getUsers(0, 10))
+                .thenReturn(List.of(userDto));
+
+        mockMvc.perform(get("/users?from=0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class));
+
+        Mockito.verify(userService, Mockito.times(1)).getUsers(0, 10);
+        Mockito.verify(userService, Mockito.never()).getUsers();
+    }
+
+    @Test
+    void testGetAllUsersByCursor() throws Exception {
+        when(userService.getUsers("", 1))
+                .thenReturn(new UserPage(List.of(userDto), "1"));
+
+        mockMvc.perform(get("/users?cursor=&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "1"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1L), Long.class));
+    }
+
+    @Test
+    void testStreamAllUsers() throws Exception {
+        when(userService.streamUsers(any()))
+                .thenAnswer(invocation -> {
+                    OutputStream out = invocation.getArgument(0);
+                    out.write((mapper.writeValueAsString(userDto) + "\n").getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult result = mockMvc.perform(get("/users/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"));
     }
 
     @Test
@@ -1,18 +1,25 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidatorExceptions;
 import ru.practicum.shareit.user.model.*;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.ArrayList;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -44,11 +51,11 @@ class UserServiceImplTest {
 
     @Test
     void testGetUsers() {
-        List<UserDto> userDtoList = List.of(
-                makeUserDto("user1", "user1@user.com"),
-                makeUserDto("user2", "user2@user.com"),
-                makeUserDto("user3", "user3@user.com")
-        );
+        // больше размера страницы по умолчанию: без параметров страницы возвращается весь список
+        List<UserDto> userDtoList = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            userDtoList.add(makeUserDto("user" + i, "user" + i + "@user.com"));
+        }
 
         for (UserDto userDto : userDtoList) {
             User entity = UserMapper.mapToUser(userDto);
@@ -68,6 +75,32 @@ class UserServiceImplTest {
         }
     }
 
+    @Test
+    void testGetUsersPaged() throws IOException {
+        for (int i = 1; i <= 5; i++) {
+            userService.addUser(makeUserDto("user" + i, "user" + i + "@user.com"));
+        }
+
+        List<UserDto> page = List.copyOf(userService.getUsers(2, 2));
+        assertThat(page, hasSize(2));
+        assertThat(page.get(0).getName(), equalTo("user3"));
+
+        UserPage firstPage = userService.getUsers("", 3);
+        assertThat(firstPage.getUsers(), hasSize(3));
+        assertThat(firstPage.getNextCursor(), equalTo("3"));
+        UserPage lastPage = userService.getUsers(firstPage.getNextCursor(), 3);
+        assertThat(lastPage.getUsers(), hasSize(2));
+        assertThat(lastPage.getUsers().get(0).getName(), equalTo("user4"));
+        assertThat(lastPage.getNextCursor(), nullValue());
+        Assertions.assertThrows(ValidatorExceptions.class, () -> userService.getUsers("abc", 3));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(userService.streamUsers(out), equalTo(5L));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines.length, equalTo(5));
+        assertThat(lines[4], equalTo("{\"id\":5,\"name\":\"user5\",\"email\":\"user5@user.com\"}"));
+    }
+
     @Test
     void testGetUser() {
         UserDto userDto = makeUserDto("user", "user@user.com");
@@ -102,13 +135,27 @@ class UserServiceImplTest {
     void testDeleteUser() {
         UserDto userDto = makeUserDto("user", "user@user.com");
         userService.addUser(userDto);
-        Collection<UserDto> userDtos = userService.getUsers();
+        Collection<UserDto> userDtos = userService.getUsers(0, 10);
         assertThat(userDtos, hasSize(1));
         userService.deleteUser(1L);
-        userDtos = userService.getUsers();
+        userDtos = userService.getUsers(0, 10);
         assertThat(userDtos, empty());
     }
 
+    @Test
+    void testUserCacheInvalidation() {
+        userService.addUser(makeUserDto("user", "user@user.com"));
+        userService.checkUserExists(1L);
+        assertThat(userService.getUserOrNotFound(1L).getName(), equalTo("user"));
+
+        userService.updateUser(1L, makeUserDto("update", null));
+        assertThat(userService.getUserOrNotFound(1L).getName(), equalTo("update"));
+
+        userService.deleteUser(1L);
+        Assertions.assertThrows(NotFoundException.class, () -> userService.getUserOrNotFound(1L));
+        Assertions.assertThrows(NotFoundException.class, () -> userService.checkUserExists(1L));
+    }
+
     private UserDto makeUserDto(String name, String email) {
         UserDto dto = new UserDto();
         dto.setName(name);